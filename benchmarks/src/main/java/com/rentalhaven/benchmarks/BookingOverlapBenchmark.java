@@ -0,0 +1,80 @@
+package com.rentalhaven.benchmarks;
+
+import com.rentalhaven.service.AvailabilityEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlap checks and claims in AvailabilityEngine. Every property holds two
+ * years of 3-night stays, one per week. {@code properties} sweeps contention
+ * for the claim path, run on all cores: with 1 every thread fights over one
+ * listing (a hot launch), with 4096 they spread over every lock stripe.
+ * {@code linearScan} checks one property's stays the way a per-row overlap
+ * query would, as a reference point.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingOverlapBenchmark {
+    private static final int WEEKS = 104;
+
+    @Param({"1", "64", "4096"})
+    public int properties;
+
+    private AvailabilityEngine engine;
+    private long[][] stays;
+    private long firstDay;
+
+    @Setup
+    public void setUp() {
+        engine = new AvailabilityEngine();
+        stays = new long[properties][];
+        firstDay = LocalDate.of(2026, 1, 5).toEpochDay();
+        for (int p = 0; p < properties; p++) {
+            stays[p] = new long[WEEKS * 2];
+            for (int w = 0; w < WEEKS; w++) {
+                long from = firstDay + w * 7L;
+                engine.tryReserve((long) p, LocalDate.ofEpochDay(from), LocalDate.ofEpochDay(from + 3));
+                stays[p][w * 2] = from;
+                stays[p][w * 2 + 1] = from + 3;
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isAvailable() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long from = firstDay + random.nextInt(WEEKS * 7);
+        return engine.isAvailable((long) random.nextInt(properties), LocalDate.ofEpochDay(from), LocalDate.ofEpochDay(from + 2));
+    }
+
+    /** Claims a free mid-week gap and gives it back; fails only when another thread holds it. */
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean reserveAndRelease() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long propertyId = random.nextInt(properties);
+        long from = firstDay + random.nextInt(WEEKS) * 7L + 4;
+        LocalDate checkIn = LocalDate.ofEpochDay(from), checkOut = LocalDate.ofEpochDay(from + 2);
+        boolean reserved = engine.tryReserve(propertyId, checkIn, checkOut);
+        if (reserved) engine.release(propertyId, checkIn, checkOut);
+        return reserved;
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] calendar = stays[random.nextInt(properties)];
+        long from = firstDay + random.nextInt(WEEKS * 7), to = from + 2;
+        for (int i = 0; i < calendar.length; i += 2) {
+            if (calendar[i] < to && calendar[i + 1] > from) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,269 @@
+package com.rentalhaven.benchmarks;
+
+import com.rentalhaven.JavaBackendApplication;
+import com.rentalhaven.model.Booking;
+import com.rentalhaven.model.BookingStatus;
+import com.rentalhaven.model.Property;
+import com.rentalhaven.model.User;
+import com.rentalhaven.repository.BookingRepository;
+import com.rentalhaven.repository.PropertyIndex;
+import com.rentalhaven.repository.PropertyRepository;
+import com.rentalhaven.repository.UserRepository;
+import com.rentalhaven.service.BookingService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * End-to-end booking stress test against a real Postgres. Starts the backend,
+ * creates a few listings, then for each thread count has every thread book
+ * random overlapping ranges on them through {@link BookingService} for a fixed
+ * time. Some requests instead cancel a recently committed booking, which may
+ * be racing another thread's cancel of the same one.
+ *
+ * After each round it checks the database: no two live bookings of a
+ * listing may overlap, and booking_daily_rollup must hold exactly one booked
+ * night per live booked night. It prints commits/sec per thread count and
+ * exits with status 1 if either check fails.
+ *
+ * Uses the backend's application.properties; point it elsewhere with the
+ * usual overrides (SPRING_DATASOURCE_URL, ...). Each run uses its own users,
+ * listings and dates far in the future, so it can run against a dev database.
+ *
+ * <pre>
+ * mvn -q exec:java -Dexec.args="--threads=1,4,16,64 --seconds=10 --properties=4"
+ * </pre>
+ */
+public final class BookingStress {
+    private static final LocalDate FIRST_DAY = LocalDate.of(2200, 1, 1);
+    /** Days each listing can be booked over in one round; small, so ranges collide. */
+    private static final int WINDOW_DAYS = 60;
+    private static final int MAX_NIGHTS = 5;
+    private static final int RENTERS = 50;
+    /** Recently committed bookings that cancels pick from. */
+    private static final int RECENT = 64;
+
+    private static final String OVERLAP_SQL =
+        "select count(*) from bookings a join bookings b on a.property_id = b.property_id and a.id < b.id "
+      + "where a.property_id in (%s) and a.status <> 'cancelled' and b.status <> 'cancelled' "
+      + "and a.check_in < b.check_out and b.check_in < a.check_out";
+    private static final String LIVE_NIGHTS_SQL =
+        "select coalesce(sum(check_out - check_in), 0) from bookings where property_id in (%s) and status <> 'cancelled'";
+    private static final String ROLLUP_NIGHTS_SQL =
+        "select coalesce(sum(booked_nights), 0) from booking_daily_rollup where property_id in (%s)";
+
+    private BookingStress() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int[] threadCounts = Arrays.stream(options.getOrDefault("threads", "1,4,16,64").split(","))
+            .mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "10"));
+        int propertyCount = Integer.parseInt(options.getOrDefault("properties", "4"));
+        double cancelShare = Double.parseDouble(options.getOrDefault("cancel-share", "0.1"));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(JavaBackendApplication.class)
+            .run("--server.port=0", "--management.server.port=0", "--spring.main.banner-mode=off", "--logging.level.root=WARN");
+        boolean failed = false;
+        try {
+            BookingService bookingService = context.getBean(BookingService.class);
+            BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+
+            String run = Long.toString(System.currentTimeMillis(), 36);
+            List<Long> renterIds = createUsers(context.getBean(UserRepository.class), run);
+            List<Long> propertyIds = createProperties(context.getBean(PropertyRepository.class),
+                context.getBean(PropertyIndex.class), renterIds.get(0), run, propertyCount);
+            String idList = propertyIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+
+            System.out.printf("%nBooking stress: %d listings, %d-day window, %ds per round, %.0f%% cancels%n",
+                propertyCount, WINDOW_DAYS, seconds, cancelShare * 100);
+            System.out.println("threads  attempts/s  commits/s  rejected  cancels  cancel-conflicts  errors  p50 ms  p99 ms  overlaps  rollup");
+            for (int round = 0; round < threadCounts.length; round++) {
+                // A fresh stretch of calendar per round, well clear of the previous one
+                LocalDate base = FIRST_DAY.plusDays(round * (WINDOW_DAYS + 2L * MAX_NIGHTS));
+                Round result = new Round(bookingService, bookingRepository, propertyIds, renterIds, base, cancelShare)
+                    .run(threadCounts[round], seconds);
+                long overlaps = jdbc.queryForObject(OVERLAP_SQL.formatted(idList), Long.class);
+                long liveNights = jdbc.queryForObject(LIVE_NIGHTS_SQL.formatted(idList), Long.class);
+                long rollupNights = jdbc.queryForObject(ROLLUP_NIGHTS_SQL.formatted(idList), Long.class);
+                boolean rollupOk = liveNights == rollupNights;
+                failed |= overlaps > 0 || !rollupOk;
+                System.out.printf("%7d  %10.0f  %9.0f  %8d  %7d  %16d  %6d  %6.1f  %6.1f  %8d  %s%n",
+                    threadCounts[round], result.attempts / (double) seconds, result.commits / (double) seconds,
+                    result.rejected, result.cancels, result.cancelConflicts, result.errors,
+                    result.percentileMillis(0.50), result.percentileMillis(0.99), overlaps,
+                    rollupOk ? "ok" : "MISMATCH " + rollupNights + " vs " + liveNights);
+            }
+        } finally {
+            context.close();
+        }
+        System.out.println(failed ? "FAILED" : "OK: no overlapping bookings, rollup consistent");
+        System.exit(failed ? 1 : 0);
+    }
+
+    private static List<Long> createUsers(UserRepository users, String run) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < RENTERS; i++) {
+            User user = new User();
+            user.setEmail("stress-" + run + "-" + i + "@example.com");
+            user.setName("Stress " + i);
+            user.setPassword("not-a-login");
+            user.setRole(i == 0 ? "owner" : "user");
+            ids.add(users.save(user).getId());
+        }
+        return ids;
+    }
+
+    private static List<Long> createProperties(PropertyRepository properties, PropertyIndex index, Long ownerId,
+                                               String run, int count) {
+        List<Long> ids = new ArrayList<>();
+        User owner = new User();
+        owner.setId(ownerId);
+        for (int i = 0; i < count; i++) {
+            Property p = new Property();
+            p.setTitle("Stress listing " + run + "-" + i);
+            p.setDescription("Created by BookingStress");
+            p.setPricePerNight(1000.0 + i);
+            p.setCity("Pune");
+            p.setState("Maharashtra");
+            p.setType("apartment");
+            p.setOwner(owner);
+            Property saved = properties.save(p);
+            index.upsert(saved);
+            ids.add(saved.getId());
+        }
+        return ids;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    /** One timed round at a fixed thread count. */
+    private static final class Round {
+        private final BookingService bookingService;
+        private final BookingRepository bookingRepository;
+        private final List<Long> propertyIds;
+        private final List<Long> renterIds;
+        private final LocalDate base;
+        private final double cancelShare;
+        private final AtomicLongArray recent = new AtomicLongArray(RECENT);
+
+        long attempts, commits, rejected, cancels, cancelConflicts, errors;
+        private long[] latencies = new long[0];
+
+        Round(BookingService bookingService, BookingRepository bookingRepository, List<Long> propertyIds,
+              List<Long> renterIds, LocalDate base, double cancelShare) {
+            this.bookingService = bookingService;
+            this.bookingRepository = bookingRepository;
+            this.propertyIds = propertyIds;
+            this.renterIds = renterIds;
+            this.base = base;
+            this.cancelShare = cancelShare;
+        }
+
+        Round run(int threads, int seconds) throws Exception {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Worker>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return new Worker().run(deadline);
+                }));
+            }
+            start.countDown();
+            List<long[]> samples = new ArrayList<>();
+            for (Future<Worker> f : futures) {
+                Worker w = f.get();
+                attempts += w.attempts;
+                commits += w.commits;
+                rejected += w.rejected;
+                cancels += w.cancels;
+                cancelConflicts += w.cancelConflicts;
+                errors += w.errors;
+                samples.add(Arrays.copyOf(w.latencies, w.samples));
+            }
+            pool.shutdown();
+            latencies = samples.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return this;
+        }
+
+        double percentileMillis(double p) {
+            if (latencies.length == 0) return 0;
+            return latencies[Math.min(latencies.length - 1, (int) (p * latencies.length))] / 1e6;
+        }
+
+        private final class Worker {
+            long attempts, commits, rejected, cancels, cancelConflicts, errors;
+            long[] latencies = new long[1024];
+            int samples;
+
+            Worker run(long deadline) {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    attempts++;
+                    long started = System.nanoTime();
+                    try {
+                        if (random.nextDouble() < cancelShare) {
+                            cancelRecent(random);
+                        } else {
+                            book(random);
+                        }
+                    } catch (RuntimeException e) {
+                        errors++;
+                    }
+                    record(System.nanoTime() - started);
+                }
+                return this;
+            }
+
+            private void book(ThreadLocalRandom random) {
+                Long propertyId = propertyIds.get(random.nextInt(propertyIds.size()));
+                LocalDate checkIn = base.plusDays(random.nextInt(WINDOW_DAYS));
+                LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(MAX_NIGHTS));
+                try {
+                    Booking booking = bookingService.create(propertyId,
+                        renterIds.get(1 + random.nextInt(renterIds.size() - 1)), checkIn, checkOut, 1);
+                    commits++;
+                    recent.set(random.nextInt(RECENT), booking.getId());
+                } catch (IllegalStateException e) {
+                    rejected++;
+                }
+            }
+
+            // Several threads may pick the same booking; only one cancel may take effect
+            private void cancelRecent(ThreadLocalRandom random) {
+                long id = recent.get(random.nextInt(RECENT));
+                if (id == 0) return;
+                Optional<Booking> booking = bookingRepository.findById(id);
+                if (booking.isEmpty() || !booking.get().isActive()) return;
+                try {
+                    bookingService.updateStatus(booking.get(), BookingStatus.CANCELLED);
+                    cancels++;
+                } catch (IllegalStateException e) {
+                    cancelConflicts++;
+                }
+            }
+
+            private void record(long nanos) {
+                if (samples == latencies.length) latencies = Arrays.copyOf(latencies, samples * 2);
+                latencies[samples++] = nanos;
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.rentalhaven.benchmarks;
+
+import com.rentalhaven.dto.PropertyCard;
+import com.rentalhaven.model.Property;
+import com.rentalhaven.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic listings. The same seed always yields the same
+ * catalogue, so runs on different commits measure the same data.
+ */
+final class Catalogue {
+    /** City and its state, matching the shape of the seed data. */
+    static final String[][] CITIES = {
+        {"Mumbai", "Maharashtra"}, {"Pune", "Maharashtra"}, {"Nagpur", "Maharashtra"}, {"Bangalore", "Karnataka"},
+        {"Mysore", "Karnataka"}, {"Delhi", "Delhi"}, {"Hyderabad", "Telangana"}, {"Chennai", "Tamil Nadu"},
+        {"Coimbatore", "Tamil Nadu"}, {"Goa", "Goa"}, {"Ahmedabad", "Gujarat"}, {"Surat", "Gujarat"},
+        {"Jaipur", "Rajasthan"}, {"Udaipur", "Rajasthan"}, {"Kolkata", "West Bengal"}, {"Kochi", "Kerala"},
+        {"Lucknow", "Uttar Pradesh"}, {"Chandigarh", "Chandigarh"}, {"Indore", "Madhya Pradesh"}, {"Shimla", "Himachal Pradesh"}
+    };
+    static final String[] TYPES = { "apartment", "house", "villa", "studio" };
+
+    private Catalogue() {}
+
+    static List<Property> properties(int count, long seed) {
+        Random random = new Random(seed);
+        List<User> owners = new ArrayList<>();
+        for (int i = 1; i <= Math.max(1, count / 50); i++) {
+            User owner = new User();
+            owner.setId((long) i);
+            owner.setName("Owner " + i);
+            owner.setEmail("owner" + i + "@example.com");
+            owner.setRole("owner");
+            owners.add(owner);
+        }
+        List<Property> properties = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Property p = new Property();
+            p.setId((long) i);
+            String[] city = CITIES[random.nextInt(CITIES.length)];
+            String type = TYPES[random.nextInt(TYPES.length)];
+            p.setTitle("Furnished " + type + " in " + city[0] + " #" + i);
+            p.setDescription("Well kept " + type + " in " + city[0] + ", close to the metro and markets."
+                + " Power backup, covered parking and a fully equipped kitchen. Listing " + i + ".");
+            p.setPricePerNight(8000.0 + random.nextInt(185) * 500);
+            p.setCity(city[0]);
+            p.setState(city[1]);
+            p.setType(type);
+            p.setImages("/api/media/" + i + "-a.jpg,/api/media/" + i + "-b.jpg");
+            p.setRating(Math.round((3.0 + random.nextDouble() * 2.0) * 10) / 10.0);
+            p.setReviewCount(random.nextInt(400));
+            p.setOwner(owners.get(random.nextInt(owners.size())));
+            properties.add(p);
+        }
+        return properties;
+    }
+
+    static List<PropertyCard> cards(List<Property> properties) {
+        List<PropertyCard> cards = new ArrayList<>(properties.size());
+        for (Property p : properties) {
+            cards.add(new PropertyCard(p.getId(), p.getTitle(), p.getPricePerNight(), p.getCity(), p.getState(),
+                p.getType(), p.getImages(), p.getRating(), p.getReviewCount(), p.getOwner().getId(), p.getOwner().getName()));
+        }
+        return cards;
+    }
+}
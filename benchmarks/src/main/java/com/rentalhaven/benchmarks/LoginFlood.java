@@ -0,0 +1,237 @@
+package com.rentalhaven.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rentalhaven.JavaBackendApplication;
+import com.rentalhaven.model.User;
+import com.rentalhaven.repository.UserRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Browse latency under a login storm, over real HTTP. Starts the backend,
+ * then runs three timed phases with the same browse workers: alone, alongside
+ * login workers that POST valid credentials back to back without honouring
+ * Retry-After, and alone again, so machine noise shows up as a gap between
+ * the two quiet phases. Browse workers alternate a listing page (random
+ * sort, no If-None-Match, so the page is really built) and a property detail.
+ *
+ * Prints browse throughput and p50/p99/p99.9 for both phases, and what the
+ * logins got: successes, 503 sheds, errors (mostly 30s client timeouts) and
+ * the success p99. Exits with status 1
+ * if any browse request failed.
+ *
+ * Extra --app.* options go to the backend, e.g. --app.rentalhaven.auth.hash-threads=64
+ * --app.rentalhaven.auth.hash-queue=10000 to approximate hashing on every
+ * request thread, as before the bounded pool.
+ *
+ * <pre>
+ * mvn -q exec:java -Dexec.mainClass=com.rentalhaven.benchmarks.LoginFlood \
+ *     -Dexec.args="--browsers=8 --logins=64 --seconds=20"
+ * </pre>
+ */
+public final class LoginFlood {
+    private static final String PASSWORD = "flood-password";
+    private static final String[] SORTS = {"rating", "price-low", "price-high", "newest"};
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private LoginFlood() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> appArgs = new ArrayList<>(List.of("--server.port=0", "--management.server.port=0", "--spring.main.banner-mode=off",
+            "--logging.level.root=WARN"));
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            if (arg.startsWith("--app.")) {
+                appArgs.add("--" + arg.substring("--app.".length()));
+            } else {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        int browsers = Integer.parseInt(options.getOrDefault("browsers", "8"));
+        int logins = Integer.parseInt(options.getOrDefault("logins", "64"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "20"));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(JavaBackendApplication.class)
+            .run(appArgs.toArray(String[]::new));
+        boolean failed;
+        try {
+            String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            String email = createUser(context.getBean(UserRepository.class));
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newCachedThreadPool(daemon())).build();
+            List<Long> propertyIds = propertyIds(client, base);
+            if (propertyIds.isEmpty()) throw new IllegalStateException("No properties to browse; seed the catalogue first");
+
+            // Warm up the JIT, caches and connection pools before measuring
+            new Phase(client, base, email, propertyIds).run(browsers, 0, Math.max(10, seconds / 2));
+            Phase quiet = new Phase(client, base, email, propertyIds).run(browsers, 0, seconds);
+            Phase flood = new Phase(client, base, email, propertyIds).run(browsers, logins, seconds);
+            Phase after = new Phase(client, base, email, propertyIds).run(browsers, 0, seconds);
+
+            System.out.printf("%nLogin flood: %d browse workers, %d login workers, %ds per phase, %d CPUs%n",
+                browsers, logins, seconds, Runtime.getRuntime().availableProcessors());
+            System.out.println("phase   browse/s  p50 ms  p99 ms  p99.9 ms  browse errors  logins ok/s  logins 503/s  login errors  login p99 ms");
+            quiet.print("quiet", seconds);
+            flood.print("flood", seconds);
+            after.print("after", seconds);
+            failed = quiet.browseErrors + flood.browseErrors + after.browseErrors > 0;
+        } finally {
+            context.close();
+        }
+        System.out.println(failed ? "FAILED: browse requests errored" : "OK");
+        System.exit(failed ? 1 : 0);
+    }
+
+    private static String createUser(UserRepository users) {
+        User user = new User();
+        user.setEmail("flood-" + Long.toString(System.currentTimeMillis(), 36) + "@example.com");
+        user.setName("Login Flood");
+        user.setRole("user");
+        user.setPassword(new BCryptPasswordEncoder().encode(PASSWORD));
+        return users.save(user).getEmail();
+    }
+
+    private static List<Long> propertyIds(HttpClient client, String base) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + "/api/properties?limit=100")).build(),
+            HttpResponse.BodyHandlers.ofString());
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode item : JSON.readTree(response.body()).path("items")) ids.add(item.path("id").asLong());
+        return ids;
+    }
+
+    private static ThreadFactory daemon() {
+        return r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /** One timed phase; browse and login workers run side by side until the deadline. */
+    private static final class Phase {
+        private final HttpClient client;
+        private final String base;
+        private final HttpRequest login;
+        private final List<Long> propertyIds;
+
+        long browseErrors, loginsOk, loginsShed, loginErrors;
+        private long[] browseLatencies = new long[0];
+        private long[] loginLatencies = new long[0];
+
+        Phase(HttpClient client, String base, String email, List<Long> propertyIds) throws Exception {
+            this.client = client;
+            this.base = base;
+            this.propertyIds = propertyIds;
+            this.login = HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(Map.of("email", email, "password", PASSWORD))))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        }
+
+        Phase run(int browsers, int logins, int seconds) throws Exception {
+            ExecutorService pool = Executors.newFixedThreadPool(browsers + logins, daemon());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Worker>> browse = new ArrayList<>(), login = new ArrayList<>();
+            for (int i = 0; i < browsers; i++) browse.add(pool.submit(() -> { start.await(); return new Worker().browse(deadline); }));
+            for (int i = 0; i < logins; i++) login.add(pool.submit(() -> { start.await(); return new Worker().login(deadline); }));
+            start.countDown();
+            List<long[]> browseSamples = new ArrayList<>(), loginSamples = new ArrayList<>();
+            for (Future<Worker> f : browse) {
+                Worker w = f.get();
+                browseErrors += w.errors;
+                browseSamples.add(Arrays.copyOf(w.latencies, w.samples));
+            }
+            for (Future<Worker> f : login) {
+                Worker w = f.get();
+                loginsOk += w.ok;
+                loginsShed += w.shed;
+                loginErrors += w.errors;
+                loginSamples.add(Arrays.copyOf(w.latencies, w.samples));
+            }
+            pool.shutdown();
+            browseLatencies = browseSamples.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            loginLatencies = loginSamples.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return this;
+        }
+
+        void print(String name, int seconds) {
+            System.out.printf("%-6s  %8.0f  %6.1f  %6.1f  %8.1f  %13d  %11.1f  %12.0f  %12d  %12s%n",
+                name, browseLatencies.length / (double) seconds,
+                percentileMillis(browseLatencies, 0.50), percentileMillis(browseLatencies, 0.99),
+                percentileMillis(browseLatencies, 0.999), browseErrors,
+                loginsOk / (double) seconds, loginsShed / (double) seconds, loginErrors,
+                loginLatencies.length == 0 ? "-" : String.format("%.0f", percentileMillis(loginLatencies, 0.99)));
+        }
+
+        private static double percentileMillis(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e6;
+        }
+
+        private final class Worker {
+            long ok, shed, errors;
+            long[] latencies = new long[1024];
+            int samples;
+
+            Worker browse(long deadline) {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                boolean listing = random.nextBoolean();
+                while (System.nanoTime() < deadline) {
+                    String path = listing
+                        ? "/api/properties?sort=" + SORTS[random.nextInt(SORTS.length)]
+                        : "/api/properties/" + propertyIds.get(random.nextInt(propertyIds.size()));
+                    listing = !listing;
+                    long started = System.nanoTime();
+                    int status = send(HttpRequest.newBuilder(URI.create(base + path)).timeout(Duration.ofSeconds(30)).build());
+                    record(System.nanoTime() - started);
+                    if (status != 200) errors++;
+                }
+                return this;
+            }
+
+            // Only successful logins are timed; a 503 is answered before any hashing
+            Worker login(long deadline) {
+                while (System.nanoTime() < deadline) {
+                    long started = System.nanoTime();
+                    int status = send(login);
+                    if (status == 200) {
+                        ok++;
+                        record(System.nanoTime() - started);
+                    } else if (status == 503) {
+                        shed++;
+                    } else {
+                        errors++;
+                    }
+                }
+                return this;
+            }
+
+            private int send(HttpRequest request) {
+                try {
+                    return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (Exception e) {
+                    return -1;
+                }
+            }
+
+            private void record(long nanos) {
+                if (samples == latencies.length) latencies = Arrays.copyOf(latencies, samples * 2);
+                latencies[samples++] = nanos;
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.rentalhaven.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rentalhaven.dto.PropertyCard;
+import com.rentalhaven.model.Property;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialisation for listing pages. {@code entities} is the old list
+ * endpoint shape (full Property with its owner); {@code cards} is what
+ * PropertyController writes now.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PropertyJsonBenchmark {
+    @Param({"20", "1000", "50000"})
+    public int rows;
+
+    private ObjectMapper mapper;
+    private List<Property> properties;
+    private List<PropertyCard> cards;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring Boot applies to its HTTP message converter
+        mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        properties = Catalogue.properties(rows, 42);
+        cards = Catalogue.cards(properties);
+    }
+
+    @Benchmark
+    public byte[] entities() throws IOException {
+        return mapper.writeValueAsBytes(properties);
+    }
+
+    @Benchmark
+    public byte[] cards() throws IOException {
+        return mapper.writeValueAsBytes(cards);
+    }
+}
@@ -0,0 +1,72 @@
+package com.rentalhaven.benchmarks;
+
+import com.rentalhaven.model.Property;
+import com.rentalhaven.repository.PropertyFilter;
+import com.rentalhaven.repository.PropertyIndex;
+import com.rentalhaven.repository.PropertySort;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First-page searches over a generated catalogue through PropertyIndex, as
+ * served by GET /api/properties, and a ranked text query as served by
+ * /api/properties/search. {@code streamScan} is the naive in-memory
+ * alternative (filter, full sort, limit) kept as a reference point.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PropertySearchBenchmark {
+    private static final int PAGE = 20;
+
+    @Param({"10000", "100000"})
+    public int catalogueSize;
+
+    private PropertyIndex index;
+    private List<Property> properties;
+    private final PropertyFilter unfiltered = new PropertyFilter(null, null, null, null, null, null, null);
+    private final PropertyFilter cityAndRating = new PropertyFilter("Pune", null, null, null, null, null, 4.0);
+    private final PropertyFilter typeAndPrice = new PropertyFilter(null, null, null, "villa", 20000.0, 40000.0, null);
+
+    @Setup
+    public void setUp() {
+        properties = Catalogue.properties(catalogueSize, 42);
+        index = new PropertyIndex();
+        properties.forEach(index::upsert);
+    }
+
+    @Benchmark
+    public PropertyIndex.Result newestUnfiltered() {
+        return index.search(unfiltered, PropertySort.NEWEST, null, PAGE);
+    }
+
+    @Benchmark
+    public PropertyIndex.Result cityByRating() {
+        return index.search(cityAndRating, PropertySort.RATING, null, PAGE);
+    }
+
+    @Benchmark
+    public PropertyIndex.Result typeAndPriceRange() {
+        return index.search(typeAndPrice, PropertySort.PRICE_LOW, null, PAGE);
+    }
+
+    @Benchmark
+    public PropertyIndex.Result textQuery() {
+        return index.searchText("furnished villa in pune", unfiltered, null, PAGE);
+    }
+
+    @Benchmark
+    public List<Property> streamScan() {
+        return properties.stream()
+            .filter(p -> "Pune".equals(p.getCity()) && p.getRating() >= 4.0)
+            .sorted(Comparator.comparing(Property::getRating).thenComparing(Property::getId).reversed())
+            .limit(PAGE)
+            .toList();
+    }
+}
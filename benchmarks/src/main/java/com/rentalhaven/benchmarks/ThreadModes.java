@@ -0,0 +1,282 @@
+package com.rentalhaven.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rentalhaven.JavaBackendApplication;
+import com.rentalhaven.model.Property;
+import com.rentalhaven.model.User;
+import com.rentalhaven.repository.PropertyIndex;
+import com.rentalhaven.repository.PropertyRepository;
+import com.rentalhaven.repository.UserRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Platform versus virtual request threads, over real HTTP. Starts the backend
+ * in one threading mode and, for each concurrency level, runs closed-loop
+ * workers that mix listing pages, property details and signed-in bookings
+ * (45% / 45% / 10%). Bookings go to listings created for the run, on dates
+ * years ahead, so they hit the database without touching real calendars; a
+ * 409 for an overlapping stay counts as an answer, not an error.
+ *
+ * One JVM measures one mode, because the pinning trace is a JVM flag. Run it
+ * twice, the second time on Java 21 with {@code --virtual=true}; pass
+ * {@code -Djdk.tracePinnedThreads=full} in MAVEN_OPTS to print a stack
+ * whenever a virtual thread blocks while pinned to its carrier.
+ *
+ * <pre>
+ * mvn -q exec:java -Dexec.mainClass=com.rentalhaven.benchmarks.ThreadModes \
+ *     -Dexec.args="--concurrency=16,64,256 --seconds=20"
+ * MAVEN_OPTS=-Djdk.tracePinnedThreads=full mvn -Pjdk21 -q exec:java \
+ *     -Dexec.mainClass=com.rentalhaven.benchmarks.ThreadModes \
+ *     -Dexec.args="--concurrency=16,64,256 --seconds=20 --virtual=true"
+ * </pre>
+ */
+public final class ThreadModes {
+    private static final String PASSWORD = "thread-modes-password";
+    private static final String[] SORTS = {"rating", "price-low", "price-high", "newest"};
+    private static final int BOOKABLE_LISTINGS = 200;
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusYears(5);
+    private static final int WINDOW_DAYS = 3 * 365;
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private enum Kind { LIST, DETAIL, BOOKING }
+
+    private ThreadModes() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        int[] levels = Arrays.stream(options.getOrDefault("concurrency", "16,64,256").split(","))
+            .mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "20"));
+        boolean virtual = Boolean.parseBoolean(options.getOrDefault("virtual", "false"));
+        if (virtual && Runtime.version().feature() < 21) {
+            System.err.println("--virtual=true needs a Java 21 runtime; this is Java " + Runtime.version().feature());
+            System.exit(2);
+        }
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(JavaBackendApplication.class)
+            .run("--server.port=0", "--management.server.port=0", "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN", "--spring.threads.virtual.enabled=" + virtual);
+        boolean failed = false;
+        try {
+            String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            String run = Long.toString(System.currentTimeMillis(), 36);
+            UserRepository users = context.getBean(UserRepository.class);
+            Long ownerId = createUser(users, "thread-modes-owner-" + run + "@example.com", "owner").getId();
+            String renter = createUser(users, "thread-modes-" + run + "@example.com", "user").getEmail();
+            List<Long> bookable = createProperties(context.getBean(PropertyRepository.class),
+                context.getBean(PropertyIndex.class), ownerId, run);
+
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newCachedThreadPool(daemon())).build();
+            String token = login(client, base, renter);
+            List<Long> browsable = propertyIds(client, base);
+            if (browsable.isEmpty()) throw new IllegalStateException("No properties to browse; seed the catalogue first");
+
+            // Warm up the JIT, caches and connection pools before measuring
+            new Level(client, base, token, browsable, bookable).run(levels[0], Math.max(10, seconds / 2));
+            System.out.printf("%nThread modes: %s threads on Java %d, %ds per level, %d CPUs%n",
+                virtual ? "virtual" : "platform", Runtime.version().feature(), seconds,
+                Runtime.getRuntime().availableProcessors());
+            System.out.println("concurrency  endpoint   req/s   p50 ms   p99 ms  conflicts  errors");
+            for (int level : levels) {
+                Level result = new Level(client, base, token, browsable, bookable).run(level, seconds);
+                for (Kind kind : Kind.values()) result.print(level, kind, seconds);
+                failed |= result.errors() > 0;
+            }
+        } finally {
+            context.close();
+        }
+        System.out.println(failed ? "FAILED: requests errored" : "OK");
+        System.exit(failed ? 1 : 0);
+    }
+
+    private static User createUser(UserRepository users, String email, String role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName("Thread Modes");
+        user.setRole(role);
+        user.setPassword(new BCryptPasswordEncoder().encode(PASSWORD));
+        return users.save(user);
+    }
+
+    private static List<Long> createProperties(PropertyRepository properties, PropertyIndex index, Long ownerId, String run) {
+        List<Long> ids = new ArrayList<>();
+        User owner = new User();
+        owner.setId(ownerId);
+        for (int i = 0; i < BOOKABLE_LISTINGS; i++) {
+            Property p = new Property();
+            p.setTitle("Thread modes listing " + run + "-" + i);
+            p.setDescription("Created by ThreadModes");
+            p.setPricePerNight(1000.0 + i);
+            p.setCity("Pune");
+            p.setState("Maharashtra");
+            p.setType("apartment");
+            p.setOwner(owner);
+            Property saved = properties.save(p);
+            index.upsert(saved);
+            ids.add(saved.getId());
+        }
+        return ids;
+    }
+
+    private static String login(HttpClient client, String base, String email) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(Map.of("email", email, "password", PASSWORD))))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) throw new IllegalStateException("Login failed: " + response.statusCode());
+        return JSON.readTree(response.body()).path("token").asText();
+    }
+
+    private static List<Long> propertyIds(HttpClient client, String base) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + "/api/properties?limit=100")).build(),
+            HttpResponse.BodyHandlers.ofString());
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode item : JSON.readTree(response.body()).path("items")) ids.add(item.path("id").asLong());
+        return ids;
+    }
+
+    private static ThreadFactory daemon() {
+        return r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /** One timed run at a fixed number of workers. */
+    private static final class Level {
+        private final HttpClient client;
+        private final String base;
+        private final String token;
+        private final List<Long> browsable;
+        private final List<Long> bookable;
+
+        private final long[][] latencies = new long[Kind.values().length][];
+        private final long[] conflicts = new long[Kind.values().length];
+        private final long[] errors = new long[Kind.values().length];
+
+        Level(HttpClient client, String base, String token, List<Long> browsable, List<Long> bookable) {
+            this.client = client;
+            this.base = base;
+            this.token = token;
+            this.browsable = browsable;
+            this.bookable = bookable;
+        }
+
+        Level run(int workers, int seconds) throws Exception {
+            ExecutorService pool = Executors.newFixedThreadPool(workers, daemon());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Worker>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) futures.add(pool.submit(() -> { start.await(); return new Worker().run(deadline); }));
+            start.countDown();
+            List<List<long[]>> samples = new ArrayList<>();
+            for (Kind ignored : Kind.values()) samples.add(new ArrayList<>());
+            for (Future<Worker> f : futures) {
+                Worker w = f.get();
+                for (Kind kind : Kind.values()) {
+                    int k = kind.ordinal();
+                    samples.get(k).add(Arrays.copyOf(w.latencies[k], w.samples[k]));
+                    conflicts[k] += w.conflicts[k];
+                    errors[k] += w.errors[k];
+                }
+            }
+            pool.shutdown();
+            for (Kind kind : Kind.values()) {
+                latencies[kind.ordinal()] = samples.get(kind.ordinal()).stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            }
+            return this;
+        }
+
+        long errors() {
+            return Arrays.stream(errors).sum();
+        }
+
+        void print(int workers, Kind kind, int seconds) {
+            int k = kind.ordinal();
+            System.out.printf("%11d  %-8s  %6.0f  %7.1f  %7.1f  %9d  %6d%n",
+                workers, kind.name().toLowerCase(), latencies[k].length / (double) seconds,
+                percentileMillis(latencies[k], 0.50), percentileMillis(latencies[k], 0.99), conflicts[k], errors[k]);
+        }
+
+        private static double percentileMillis(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e6;
+        }
+
+        private final class Worker {
+            final long[][] latencies = new long[Kind.values().length][1024];
+            final int[] samples = new int[Kind.values().length];
+            final long[] conflicts = new long[Kind.values().length];
+            final long[] errors = new long[Kind.values().length];
+
+            Worker run(long deadline) throws Exception {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    int roll = random.nextInt(100);
+                    Kind kind = roll < 45 ? Kind.LIST : roll < 90 ? Kind.DETAIL : Kind.BOOKING;
+                    HttpRequest.Builder request = switch (kind) {
+                        case LIST -> HttpRequest.newBuilder(URI.create(base + "/api/properties?sort=" + SORTS[random.nextInt(SORTS.length)]));
+                        case DETAIL -> HttpRequest.newBuilder(URI.create(base + "/api/properties/" + browsable.get(random.nextInt(browsable.size()))));
+                        case BOOKING -> booking(random);
+                    };
+                    long started = System.nanoTime();
+                    int status = send(request.timeout(Duration.ofSeconds(30)).build());
+                    record(kind, System.nanoTime() - started);
+                    if (kind == Kind.BOOKING && status == 409) {
+                        conflicts[kind.ordinal()]++;
+                    } else if (status != 200) {
+                        errors[kind.ordinal()]++;
+                    }
+                }
+                return this;
+            }
+
+            private HttpRequest.Builder booking(ThreadLocalRandom random) throws Exception {
+                LocalDate checkIn = FIRST_DAY.plusDays(random.nextInt(WINDOW_DAYS));
+                Map<String, Object> body = Map.of(
+                    "propertyId", bookable.get(random.nextInt(bookable.size())),
+                    "checkIn", checkIn.toString(),
+                    "checkOut", checkIn.plusDays(1 + random.nextInt(3)).toString(),
+                    "guests", 2);
+                return HttpRequest.newBuilder(URI.create(base + "/api/bookings"))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + token)
+                    .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body)));
+            }
+
+            private int send(HttpRequest request) {
+                try {
+                    return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (Exception e) {
+                    return -1;
+                }
+            }
+
+            private void record(Kind kind, long nanos) {
+                int k = kind.ordinal();
+                if (samples[k] == latencies[k].length) latencies[k] = Arrays.copyOf(latencies[k], samples[k] * 2);
+                latencies[k][samples[k]++] = nanos;
+            }
+        }
+    }
+}
@@ -79,10 +79,13 @@ export default function BookingModal({ isOpen, onClose, property }: BookingModal
         throw new Error("Please login to book a property");
       }
 
+      // The server prices the stay itself; totalAmount is only for display
+      const { totalAmount: _total, ...fields } = data;
       const response = await apiRequest("POST", "/api/bookings", {
-        ...data,
+        ...fields,
+        checkIn: format(data.checkIn, 'yyyy-MM-dd'),
+        checkOut: format(data.checkOut, 'yyyy-MM-dd'),
         propertyId: property.id,
-        userId: user.id,
       });
       return response.json();
     },
@@ -421,7 +421,7 @@ export default function PropertyForm({ isOpen, onClose }: PropertyFormProps) {
                 id="images"
                 type="file"
                 multiple
-                accept="image/*"
+                accept="image/jpeg,image/png,image/gif"
                 onChange={handleImageChange}
                 className="hidden"
               />
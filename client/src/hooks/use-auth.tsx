@@ -15,8 +15,8 @@ export function useAuth() {
   const { data: user, isLoading } = useQuery<User | null>({
     queryKey: ["/api/auth/me", email],
     queryFn: async () => {
-      if (!email) return null;
-      const response = await apiRequest("GET", `/api/auth/me?email=${encodeURIComponent(email)}`);
+      // The bearer token identifies the user; the server reads it without a database lookup
+      const response = await apiRequest("GET", "/api/auth/me");
       return response.json();
     },
     retry: false,
@@ -60,6 +60,8 @@ export function useAuth() {
   });
 
   const logout = () => {
+    // Revoke the token server-side; local state is cleared regardless of the outcome
+    apiRequest("POST", "/api/auth/logout").catch(() => {});
     localStorage.removeItem('token');
     localStorage.removeItem('email');
     queryClient.setQueryData(["/api/auth/me"], null);
@@ -0,0 +1,66 @@
+import { useEffect, useRef } from "react";
+
+const WS_URL = "ws://localhost:8080/ws";
+
+// Minimal STOMP 1.2 client: the server only pushes, so CONNECT and SUBSCRIBE are all we send
+function frame(command: string, headers: Record<string, string>): string {
+  const lines = Object.entries(headers).map(([k, v]) => `${k}:${v}`);
+  return [command, ...lines, "", ""].join("\n") + "\0";
+}
+
+/**
+ * Subscribes to a live topic such as `/topic/owners/7` while the component is
+ * mounted. Reconnects with backoff when the socket drops; the server
+ * disconnects clients that fall behind, so callers should refetch on message
+ * rather than rely on having seen every one.
+ */
+export function useLiveTopic(topic: string | null, onMessage: (body: any) => void) {
+  const handler = useRef(onMessage);
+  handler.current = onMessage;
+
+  useEffect(() => {
+    if (!topic) return;
+    let socket: WebSocket | null = null;
+    let retry: ReturnType<typeof setTimeout> | undefined;
+    let attempts = 0;
+    let closed = false;
+
+    const connect = () => {
+      socket = new WebSocket(WS_URL);
+      socket.onopen = () => {
+        const token = localStorage.getItem("token");
+        socket!.send(frame("CONNECT", {
+          "accept-version": "1.2",
+          host: "localhost",
+          ...(token ? { Authorization: `Bearer ${token}` } : {}),
+        }));
+      };
+      socket.onmessage = (event) => {
+        const data = String(event.data);
+        const command = data.slice(0, data.indexOf("\n"));
+        if (command === "CONNECTED") {
+          attempts = 0;
+          socket!.send(frame("SUBSCRIBE", { id: "sub-0", destination: topic }));
+        } else if (command === "MESSAGE") {
+          const body = data.slice(data.indexOf("\n\n") + 2).replace(/\0$/, "");
+          try {
+            handler.current(JSON.parse(body));
+          } catch {
+            // Ignore frames we cannot parse
+          }
+        }
+      };
+      socket.onclose = () => {
+        if (closed) return;
+        retry = setTimeout(connect, Math.min(30000, 1000 * 2 ** attempts++));
+      };
+    };
+
+    connect();
+    return () => {
+      closed = true;
+      clearTimeout(retry);
+      socket?.close();
+    };
+  }, [topic]);
+}
@@ -1,5 +1,6 @@
 import { QueryClient, QueryFunction } from "@tanstack/react-query";
 import staticProperties from "@/static/properties.json" assert { type: "json" };
+import { getAuthHeaders } from "@/lib/auth";
 
 const API_BASE_URL = "http://localhost:8080";
 
@@ -19,7 +20,10 @@ export async function apiRequest(
   const fullUrl = url.startsWith("/api") ? `${API_BASE_URL}${url}` : url;
   const res = await fetch(fullUrl, {
     method,
-    headers: data ? { "Content-Type": "application/json" } : {},
+    headers: {
+      ...getAuthHeaders(),
+      ...(data ? { "Content-Type": "application/json" } : {}),
+    },
     body: data ? JSON.stringify(data) : undefined,
     credentials: "include",
   });
@@ -28,6 +32,15 @@ export async function apiRequest(
   return res;
 }
 
+// Listing endpoints return one page at a time as { items, nextCursor }; the
+// static fallback is a plain array, so accept both shapes.
+export type Page<T> = { items: T[]; nextCursor: string | null };
+
+export function pageItems<T>(data: T[] | Page<T> | null | undefined): T[] {
+  if (!data) return [];
+  return Array.isArray(data) ? data : data.items;
+}
+
 type UnauthorizedBehavior = "returnNull" | "throw";
 export const getQueryFn: <T>(options: {
   on401: UnauthorizedBehavior;
@@ -41,6 +54,7 @@ export const getQueryFn: <T>(options: {
     }
     try {
       const res = await fetch(url, {
+        headers: getAuthHeaders(),
         credentials: "include",
       });
       if (unauthorizedBehavior === "returnNull" && res.status === 401) {
@@ -1,12 +1,13 @@
-import { useState, useMemo } from "react";
-import { useQuery } from "@tanstack/react-query";
+import { useState } from "react";
+import { useInfiniteQuery } from "@tanstack/react-query";
 import { Link } from "wouter";
 import Navbar from "@/components/navbar";
 import SearchBar from "@/components/search-bar";
 import PropertyCard from "@/components/property-card";
 import { Property } from "@shared/schema";
 import { useAuth } from "@/hooks/use-auth";
-import { getQueryFn } from "@/lib/queryClient";
+import { Button } from "@/components/ui/button";
+import { getQueryFn, pageItems, Page } from "@/lib/queryClient";
 
 type SearchFilters = {
   location?: string;
@@ -22,44 +23,27 @@ export default function Home() {
   const [searchFilters, setSearchFilters] = useState<SearchFilters>({});
   const [sortBy, setSortBy] = useState<SortOption>('rating');
 
-  const { data: properties = [], isLoading, error } = useQuery<Property[]>({
-    queryKey: ["/api/properties", JSON.stringify(searchFilters)],
-    queryFn: getQueryFn({ on401: "throw" }),
-  });
-
-  // Sort and filter properties
-  const sortedAndFilteredProperties = useMemo(() => {
-    let filtered = [...properties];
-
-    // Apply search filters
-    if (searchFilters.location) {
-      filtered = filtered.filter(property => 
-        property.city.toLowerCase().includes(searchFilters.location!.toLowerCase()) ||
-        property.state.toLowerCase().includes(searchFilters.location!.toLowerCase())
-      );
-    }
-
-    // Apply sorting
-    switch (sortBy) {
-      case 'price-low':
-        filtered.sort((a, b) => (a.pricePerNight || 0) - (b.pricePerNight || 0));
-        break;
-      case 'price-high':
-        filtered.sort((a, b) => (b.pricePerNight || 0) - (a.pricePerNight || 0));
-        break;
-      case 'rating':
-        filtered.sort((a, b) => (b.rating || 0) - (a.rating || 0));
-        break;
-      case 'newest':
-        // Assuming newer properties have higher IDs
-        filtered.sort((a, b) => (b.id || 0) - (a.id || 0));
-        break;
-      default:
-        break;
-    }
+  // Filtering and sorting happen server-side, a page at a time. The location
+  // matches any city or state containing it, ignoring case.
+  const params = new URLSearchParams({ sort: sortBy });
+  if (searchFilters.location) {
+    params.set("location", searchFilters.location);
+  }
+  const listUrl = `/api/properties?${params.toString()}`;
+  const fetchPage = getQueryFn<Page<Property> | Property[]>({ on401: "throw" });
 
-    return filtered;
-  }, [properties, searchFilters, sortBy]);
+  const { data, isLoading, error, fetchNextPage, hasNextPage, isFetchingNextPage } = useInfiniteQuery({
+    queryKey: [listUrl],
+    queryFn: ({ pageParam, signal, meta }) => fetchPage({
+      queryKey: [pageParam ? `${listUrl}&cursor=${encodeURIComponent(pageParam)}` : listUrl],
+      signal,
+      meta,
+    }),
+    initialPageParam: null as string | null,
+    // The static fallback is a plain array with nothing after it
+    getNextPageParam: (lastPage) => (lastPage && !Array.isArray(lastPage) ? lastPage.nextCursor : null),
+  });
+  const sortedAndFilteredProperties = data?.pages.flatMap((page) => pageItems(page)) ?? [];
 
   return (
     <div className="min-h-screen bg-gray-50">
@@ -119,6 +103,13 @@ export default function Home() {
               ))}
             </div>
           )}
+          {hasNextPage && (
+            <div className="text-center mt-8">
+              <Button variant="outline" onClick={() => fetchNextPage()} disabled={isFetchingNextPage}>
+                {isFetchingNextPage ? "Loading..." : "Load more"}
+              </Button>
+            </div>
+          )}
           {!isLoading && sortedAndFilteredProperties.length === 0 && (
             <div className="text-center py-12">
               <div className="text-6xl text-gray-300 mb-4">🏠</div>
@@ -6,15 +6,16 @@ import SearchBar from "@/components/search-bar";
 import PropertyCard from "@/components/property-card";
 import AuthModal from "@/components/auth-modal";
 import { Property } from "@shared/schema";
-import { getQueryFn } from "@/lib/queryClient";
+import { getQueryFn, pageItems, Page } from "@/lib/queryClient";
 
 export default function Landing() {
   const [showAuthModal, setShowAuthModal] = useState(false);
   const [authMode, setAuthMode] = useState<'login' | 'register'>('login');
 
-  const { data: properties = [], isLoading, error } = useQuery<Property[]>({
-    queryKey: ["/api/properties"],
+  const { data: properties = [], isLoading, error } = useQuery<Page<Property> | Property[], Error, Property[]>({
+    queryKey: ["/api/properties?limit=6"],
     queryFn: getQueryFn({ on401: "throw" }),
+    select: pageItems,
   });
 
   const featuredProperties = properties.slice(0, 6);
@@ -1,10 +1,11 @@
 import { useState } from "react";
-import { useQuery } from "@tanstack/react-query";
+import { useQuery, useQueryClient } from "@tanstack/react-query";
 import { Home, Calendar, TrendingUp, DollarSign, Plus, Star, Edit, Eye } from "lucide-react";
 import Navbar from "@/components/navbar";
 import PropertyForm from "@/components/property-form";
 import { Property, Booking } from "@shared/schema";
 import { useAuth } from "@/hooks/use-auth";
+import { useLiveTopic } from "@/lib/live";
 import { Card, CardContent, CardHeader, CardTitle } from "@/components/ui/card";
 import { Badge } from "@/components/ui/badge";
 import { Button } from "@/components/ui/button";
@@ -18,8 +19,19 @@ export default function OwnerDashboard() {
     queryKey: ["/api/owner/properties"],
   });
 
-  const { data: bookingsResponse, isLoading: bookingsLoading } = useQuery<{ bookings: Booking[] }>({
-    queryKey: ["/api/bookings/owner"],
+  // Revenue and occupancy for the current month come pre-aggregated from the server
+  const { data: bookingsResponse, isLoading: bookingsLoading } = useQuery<{
+    bookings: Booking[];
+    totals?: { revenue: number; occupancyRate: number };
+  }>({
+    queryKey: [`/api/bookings/owner?email=${encodeURIComponent(user?.email ?? "")}`],
+    enabled: !!user?.email,
+  });
+
+  // New bookings and status changes on this owner's listings arrive over the socket
+  const queryClient = useQueryClient();
+  useLiveTopic(user?.id ? `/topic/owners/${user.id}` : null, () => {
+    queryClient.invalidateQueries({ queryKey: [`/api/bookings/owner?email=${encodeURIComponent(user?.email ?? "")}`] });
   });
 
   // Extract bookings array from response, with fallback to empty array
@@ -28,9 +40,8 @@ export default function OwnerDashboard() {
   const activeProperties = properties.filter(p => p.status === 'approved');
   const pendingProperties = properties.filter(p => p.status === 'pending');
   const activeBookings = bookings.filter(b => b.status === 'confirmed');
-  const monthlyRevenue = bookings
-    .filter(b => b.status === 'confirmed' || b.status === 'completed')
-    .reduce((sum, b) => sum + parseFloat(b.totalAmount), 0);
+  const monthlyRevenue = bookingsResponse?.totals?.revenue ?? 0;
+  const occupancyRate = (bookingsResponse?.totals?.occupancyRate ?? 0) * 100;
   const avgRating = properties.length > 0 
     ? properties.reduce((sum, p) => sum + parseFloat(p.rating || '0'), 0) / properties.length 
     : 0;
@@ -350,7 +361,7 @@ export default function OwnerDashboard() {
                       <div className="flex justify-between">
                         <span className="text-sm text-gray-600">Occupancy Rate</span>
                         <span className="font-semibold">
-                          {properties.length > 0 ? ((activeBookings.length / properties.length) * 100).toFixed(1) : 0}%
+                          {occupancyRate.toFixed(1)}%
                         </span>
                       </div>
                     </div>
@@ -1,6 +1,6 @@
 import { useState } from "react";
 import { useParams } from "wouter";
-import { useQuery } from "@tanstack/react-query";
+import { useQuery, useQueryClient } from "@tanstack/react-query";
 import { Star, Wifi, Car, Coffee, Users, Bed, Bath, MapPin, CreditCard, Lock, CheckCircle } from "lucide-react";
 import Navbar from "@/components/navbar";
 import BookingModal from "@/components/booking-modal";
@@ -13,6 +13,7 @@ import { differenceInCalendarDays, parseISO } from 'date-fns';
 import { Dialog, DialogContent, DialogHeader, DialogTitle, DialogDescription } from "@/components/ui/dialog";
 import { useAuth } from "@/hooks/use-auth";
 import AuthModal from "@/components/auth-modal";
+import { useLiveTopic } from "@/lib/live";
 
 export default function PropertyDetails() {
   const { id } = useParams();
@@ -46,6 +47,18 @@ export default function PropertyDetails() {
 
   const property = stateProperty || fetchedProperty;
 
+  // Bookings made or changed on this listing while it is open, keyed by booking id
+  const queryClient = useQueryClient();
+  const [liveBookings, setLiveBookings] = useState<Record<number, { checkIn: string; checkOut: string; status: string }>>({});
+  useLiveTopic(id ? `/topic/properties/${id}` : null, (message) => {
+    setLiveBookings(current => {
+      const next = { ...current };
+      for (const b of message.bookings ?? []) next[b.bookingId] = { checkIn: b.checkIn, checkOut: b.checkOut, status: b.status };
+      return next;
+    });
+    queryClient.invalidateQueries({ queryKey: ["/api/properties", id] });
+  });
+
   if (isLoading && !property) {
     return (
       <div className="min-h-screen bg-white">
@@ -144,6 +157,10 @@ export default function PropertyDetails() {
     } catch {}
   }
 
+  // ISO dates compare as strings; stays are half-open, so a check-out day can be the next check-in
+  const datesJustTaken = !!checkIn && !!checkOut && Object.values(liveBookings).some(b =>
+    b.status !== "cancelled" && b.checkIn < checkOut && checkIn < b.checkOut);
+
   // Calculate total and service fee
   const nightly = typeof property.pricePerNight === 'number' ? property.pricePerNight : parseFloat(property.pricePerNight || '0');
   const subtotal = nightly * nights * guests;
@@ -318,6 +335,9 @@ export default function PropertyDetails() {
                       />
                     </div>
                   </div>
+                  {datesJustTaken && (
+                    <p className="text-red-600 text-sm">These dates were just booked by another guest. Please choose different dates.</p>
+                  )}
 
                   <div>
                     <label className="block text-sm font-medium text-gray-700 mb-1">Guests</label>
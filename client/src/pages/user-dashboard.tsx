@@ -11,6 +11,7 @@ import { Badge } from "@/components/ui/badge";
 import { Button } from "@/components/ui/button";
 import PropertyCard from "@/components/property-card";
 import BookingDetailsModal from "@/components/booking-details-modal";
+import { pageItems, Page } from "@/lib/queryClient";
 
 export default function UserDashboard() {
   const { user } = useAuth();
@@ -20,11 +21,13 @@ export default function UserDashboard() {
   const [showBookingDetails, setShowBookingDetails] = useState(false);
 
   const { data: bookingsResponse, isLoading: bookingsLoading } = useQuery<{ bookings: Booking[] }>({
-    queryKey: ["/api/bookings/user"],
+    queryKey: [`/api/bookings/user?email=${encodeURIComponent(user?.email ?? "")}`],
+    enabled: !!user?.email,
   });
 
-  const { data: allProperties = [], isLoading: propertiesLoading } = useQuery<Property[]>({
-    queryKey: ["/api/properties"],
+  const { data: allProperties = [], isLoading: propertiesLoading } = useQuery<Page<Property> | Property[], Error, Property[]>({
+    queryKey: ["/api/properties?limit=100"],
+    select: pageItems,
   });
 
   // Extract bookings array from response, with fallback to empty array
@@ -1,11 +1,41 @@
 package com.rentalhaven;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
 
 @SpringBootApplication
+@EnableCaching
 public class JavaBackendApplication {
+    private static final Logger log = LoggerFactory.getLogger(JavaBackendApplication.class);
+
     public static void main(String[] args) {
         SpringApplication.run(JavaBackendApplication.class, args);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Spring silently ignores spring.threads.virtual.enabled below Java 21,
+     * which would leave the Hikari sizing tuned for virtual threads in front
+     * of a capped platform pool. Say which mode is actually running.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreading(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Requests, @Async and scheduled work run on virtual threads");
+        } else if (requested) {
+            log.error("VIRTUAL THREADS REQUESTED BUT UNAVAILABLE: running on Java {}, which has none. "
+                + "Requests run on the platform thread pool. Run on Java 21+ or unset VIRTUAL_THREADS",
+                Runtime.version().feature());
+        } else {
+            log.info("Requests run on the platform thread pool (VIRTUAL_THREADS=true on Java 21+ switches)");
+        }
+    }
+}
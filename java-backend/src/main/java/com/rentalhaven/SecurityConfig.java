@@ -1,25 +1,56 @@
 package com.rentalhaven;
 
+import com.rentalhaven.security.TokenAuthenticationFilter;
+import com.rentalhaven.security.TokenService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
 @Configuration
 public class SecurityConfig {
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, TokenService tokenService,
+                                           @Value("${management.server.port:-1}") int managementPort) throws Exception {
+        // Actuator lives on its own port (see application.properties); a scrape
+        // arriving on any other port, e.g. if the two were ever merged, needs ADMIN
+        RequestMatcher onManagementPort = request -> managementPort > 0 && request.getLocalPort() == managementPort;
         System.out.println("Custom SecurityConfig loaded: /api/seed and /api/auth/** are public");
         http
             .cors().and() // <-- Add this line to enable CORS support in Spring Security
             .csrf(csrf -> csrf.disable())
+            // Identity comes from the signed bearer token on each request; no HTTP session, no user lookup
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .addFilterBefore(new TokenAuthenticationFilter(tokenService), UsernamePasswordAuthenticationFilter.class)
+            // Answer both directly: a sendError would go through /error, which is not permitted and came back 401
+            .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+                .accessDeniedHandler((request, response, denied) -> response.setStatus(HttpStatus.FORBIDDEN.value())))
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers(HttpMethod.GET, "/api/properties/**").permitAll()
-                .requestMatchers("/api/seed", "/api/seed/**", "/api/auth/**", "/api/properties", "/api/bookings/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/properties/**", "/api/media/**", "/api/bookings/availability").permitAll()
+                // Every other booking endpoint takes the caller's identity from the token
+                .requestMatchers("/api/seed", "/api/seed/**", "/api/auth/**").permitAll()
+                // New listings belong to the caller, who must be able to own one
+                .requestMatchers(HttpMethod.POST, "/api/properties").hasAnyRole("OWNER", "ADMIN")
+                // WebSocket handshake; STOMP CONNECT carries the token and WebSocketConfig checks subscriptions
+                .requestMatchers("/ws").permitAll()
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/health").permitAll()
+                // Scraped by Prometheus without a session token, on the management port only
+                .requestMatchers(new AndRequestMatcher(onManagementPort, antMatcher("/actuator/prometheus"))).permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             );
         return http.build();
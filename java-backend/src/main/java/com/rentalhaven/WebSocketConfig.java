@@ -0,0 +1,140 @@
+package com.rentalhaven;
+
+import com.rentalhaven.security.AuthenticatedUser;
+import com.rentalhaven.security.TokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * STOMP over WebSocket at /ws for live booking updates. Clients only
+ * subscribe; they never send to the broker.
+ *
+ * The token goes in the CONNECT frame's Authorization header, since browsers
+ * cannot set headers on the handshake. Property topics are public. An owner
+ * topic can only be subscribed by that owner or an admin.
+ *
+ * Each session has a send time limit and a buffer limit. A client that falls
+ * behind either one is disconnected instead of buffering without bound; it
+ * reconnects and reloads over REST.
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private static final String PROPERTY_TOPIC = "/topic/properties/";
+    private static final String OWNER_TOPIC = "/topic/owners/";
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Value("${rentalhaven.push.send-time-limit:10s}")
+    private Duration sendTimeLimit;
+    @Value("${rentalhaven.push.send-buffer-limit:256KB}")
+    private DataSize sendBufferLimit;
+
+    /**
+     * The broker registers its channel executors as beans, which makes Boot's
+     * task execution auto-configuration back off. Declare the application
+     * executor it would have created: MVC async requests and AuthController
+     * run on it. Same builders and threading choice as Boot's own.
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+        AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder threadPoolBuilder,
+                                                     SimpleAsyncTaskExecutorBuilder virtualThreadBuilder,
+                                                     Environment environment) {
+        return Threading.VIRTUAL.isActive(environment) ? virtualThreadBuilder.build() : threadPoolBuilder.build();
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws").setAllowedOriginPatterns("*");
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/topic");
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit((int) sendTimeLimit.toMillis())
+            .setSendBufferSizeLimit((int) sendBufferLimit.toBytes())
+            .setMessageSizeLimit(16 * 1024);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                if (accessor == null || accessor.getCommand() == null) return message;
+                switch (accessor.getCommand()) {
+                    case CONNECT -> authenticate(accessor);
+                    case SUBSCRIBE -> authorize(accessor);
+                    case SEND -> throw new MessageDeliveryException("Clients may not send messages");
+                    default -> { }
+                }
+                return message;
+            }
+        });
+    }
+
+    private void authenticate(StompHeaderAccessor accessor) {
+        String header = accessor.getFirstNativeHeader("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) return;
+        AuthenticatedUser user = tokenService.verify(header.substring(7));
+        if (user != null) {
+            String role = user.role() != null ? user.role().toUpperCase(Locale.ROOT) : "USER";
+            accessor.setUser(new UsernamePasswordAuthenticationToken(user, null, List.of(new SimpleGrantedAuthority("ROLE_" + role))));
+        }
+    }
+
+    private void authorize(StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        if (destination == null) throw new MessageDeliveryException("Missing destination");
+        if (destination.startsWith(PROPERTY_TOPIC) && isId(destination.substring(PROPERTY_TOPIC.length()))) return;
+        if (destination.startsWith(OWNER_TOPIC) && isId(destination.substring(OWNER_TOPIC.length()))) {
+            if (accessor.getUser() instanceof UsernamePasswordAuthenticationToken auth
+                    && auth.getPrincipal() instanceof AuthenticatedUser user
+                    && (destination.equals(OWNER_TOPIC + user.id()) || "admin".equalsIgnoreCase(user.role()))) {
+                return;
+            }
+            throw new MessageDeliveryException("Not allowed to subscribe to " + destination);
+        }
+        throw new MessageDeliveryException("Unknown destination " + destination);
+    }
+
+    private static boolean isId(String value) {
+        return !value.isEmpty() && value.chars().allMatch(Character::isDigit);
+    }
+}
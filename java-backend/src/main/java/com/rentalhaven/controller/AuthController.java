@@ -1,66 +1,130 @@
 package com.rentalhaven.controller;
 
+import com.rentalhaven.dto.RegisterRequest;
 import com.rentalhaven.model.User;
 import com.rentalhaven.repository.UserRepository;
+import com.rentalhaven.security.AuthenticatedUser;
+import com.rentalhaven.security.PasswordHashingService;
+import com.rentalhaven.security.TokenService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
+    /** Roles anyone may sign up with; admins are only ever created server-side. */
+    private static final Set<String> PUBLIC_ROLES = Set.of("user", "owner");
+
     @Autowired
     private UserRepository userRepository;
-
-    private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private TokenService tokenService;
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+    // Spring's request-side task pool; the user insert must not run on a hashing thread
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody User user) {
-        if (userRepository.findByEmail(user.getEmail()).isPresent()) {
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody RegisterRequest request) {
+        if (isBlank(request.email()) || isBlank(request.password()) || isBlank(request.name())) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest().body(Map.of("error", "Email, password and name are required")));
+        }
+        String role = isBlank(request.role()) ? "user" : request.role().toLowerCase(Locale.ROOT);
+        if (!PUBLIC_ROLES.contains(role)) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest().body(Map.of("error", "Role must be one of " + PUBLIC_ROLES)));
+        }
+        if (userRepository.findSummaryByEmail(request.email()).isPresent()) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Email already in use");
-            return ResponseEntity.badRequest().body(error);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(error));
+        }
+        try {
+            return passwordHashingService.encode(request.password()).thenApplyAsync(hash -> {
+                User user = new User();
+                user.setEmail(request.email());
+                user.setPassword(hash);
+                user.setName(request.name());
+                user.setMobile(request.mobile());
+                user.setRole(role);
+                User savedUser = userRepository.save(user);
+                Map<String, Object> response = new HashMap<>();
+                response.put("user", savedUser);
+                response.put("token", tokenService.issue(savedUser));
+                response.put("message", "User registered successfully");
+                return ResponseEntity.ok(response);
+            }, taskExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(overloaded());
         }
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        User savedUser = userRepository.save(user);
-        Map<String, Object> response = new HashMap<>();
-        savedUser.setPassword(null); // Don't return password
-        response.put("user", savedUser);
-        response.put("token", "dummy-token");
-        response.put("message", "User registered successfully");
-        return ResponseEntity.ok(response);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody User loginUser) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody User loginUser) {
         Optional<User> userOpt = userRepository.findByEmail(loginUser.getEmail());
-        if (userOpt.isPresent() && passwordEncoder.matches(loginUser.getPassword(), userOpt.get().getPassword())) {
-            User user = userOpt.get();
-            user.setPassword(null); // Don't return password
-            Map<String, Object> response = new HashMap<>();
-            response.put("user", user);
-            response.put("token", "dummy-token");
-            response.put("message", "Login successful");
-            return ResponseEntity.ok(response);
+        if (userOpt.isEmpty() || loginUser.getPassword() == null) {
+            return CompletableFuture.completedFuture(invalidCredentials());
+        }
+        User user = userOpt.get();
+        try {
+            return passwordHashingService.matches(loginUser.getPassword(), user.getPassword()).thenApply(matches -> {
+                if (!matches) return invalidCredentials();
+                Map<String, Object> response = new HashMap<>();
+                response.put("user", user);
+                response.put("token", tokenService.issue(user));
+                response.put("message", "Login successful");
+                return ResponseEntity.ok(response);
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(overloaded());
+        }
+    }
+
+    /** Answered from the verified token claims; no database access. */
+    @GetMapping("/me")
+    public ResponseEntity<?> getMe(@AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
+        }
+        return ResponseEntity.ok(principal);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            tokenService.revoke(authorization.substring(7));
         }
+        return ResponseEntity.ok(Map.of("message", "Logged out"));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static ResponseEntity<?> invalidCredentials() {
         Map<String, String> error = new HashMap<>();
         error.put("error", "Invalid credentials");
         return ResponseEntity.status(401).body(error);
     }
 
-    @GetMapping("/me")
-    public ResponseEntity<?> getMe(@RequestParam String email) {
-        Optional<User> userOpt = userRepository.findByEmail(email);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            user.setPassword(null);
-            return ResponseEntity.ok(user);
-        }
-        return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
+    // Hashing queue is full: shed the request rather than park a worker thread on it
+    private static ResponseEntity<?> overloaded() {
+        return ResponseEntity.status(503).header("Retry-After", "2")
+            .body(Map.of("error", "Too many sign-in attempts right now, please retry shortly"));
     }
-} 
\ No newline at end of file
+}
@@ -1,51 +1,248 @@
 package com.rentalhaven.controller;
 
+import com.rentalhaven.dto.BookingView;
+import com.rentalhaven.dto.PropertyStats;
+import com.rentalhaven.model.Booking;
+import com.rentalhaven.model.BookingStatus;
+import com.rentalhaven.repository.BookingRepository;
+import com.rentalhaven.repository.BookingRollupRepository;
+import com.rentalhaven.repository.PropertyRepository;
+import com.rentalhaven.security.AuthenticatedUser;
+import com.rentalhaven.service.AvailabilityEngine;
+import com.rentalhaven.service.BookingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
 @RestController
 @RequestMapping("/api/bookings")
 public class BookingsController {
+    /** Longest stay one booking may cover. */
+    private static final int MAX_NIGHTS = 365;
+    private static final ResponseEntity<?> FORBIDDEN = ResponseEntity.status(403).body(Map.of("error", "Not allowed"));
 
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingRollupRepository bookingRollupRepository;
+    @Autowired
+    private AvailabilityEngine availabilityEngine;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    /** Books for the signed-in user; any userId in the body is ignored. */
     @PostMapping
-    public ResponseEntity<?> createBooking(@RequestBody Map<String, Object> bookingData) {
-        // TODO: Implement actual booking creation logic
+    public ResponseEntity<?> createBooking(@RequestBody Map<String, Object> bookingData,
+                                           @AuthenticationPrincipal AuthenticatedUser principal) {
+        LocalDate checkIn, checkOut;
+        Long propertyId;
+        try {
+            propertyId = toLong(bookingData.get("propertyId"));
+            checkIn = LocalDate.parse(String.valueOf(bookingData.get("checkIn")));
+            checkOut = LocalDate.parse(String.valueOf(bookingData.get("checkOut")));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "propertyId, checkIn and checkOut (yyyy-MM-dd) are required"));
+        }
+        if (!checkOut.isAfter(checkIn)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "checkOut must be after checkIn"));
+        }
+        if (checkIn.isBefore(LocalDate.now())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "checkIn cannot be in the past"));
+        }
+        if (ChronoUnit.DAYS.between(checkIn, checkOut) > MAX_NIGHTS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "A stay can be at most " + MAX_NIGHTS + " nights"));
+        }
+        int guests = bookingData.get("guests") instanceof Number n ? n.intValue() : 1;
+        if (guests < 1) {
+            return ResponseEntity.badRequest().body(Map.of("error", "guests must be at least 1"));
+        }
+
+        Booking booking;
+        try {
+            booking = bookingService.create(propertyId, principal.id(), checkIn, checkOut, guests);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Booking created successfully");
-        response.put("bookingId", "temp-" + System.currentTimeMillis());
-        response.put("status", "pending");
+        response.put("bookingId", booking.getId());
+        response.put("status", booking.getStatus());
+        response.put("booking", booking);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Availability for one property ({@code propertyId}) or a batch
+     * ({@code propertyIds}); answered from memory.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<?> getAvailability(@RequestParam(required = false) Long propertyId,
+                                             @RequestParam(required = false) List<Long> propertyIds,
+                                             @RequestParam String checkIn,
+                                             @RequestParam String checkOut) {
+        LocalDate in, out;
+        try {
+            in = LocalDate.parse(checkIn);
+            out = LocalDate.parse(checkOut);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Dates must be yyyy-MM-dd"));
+        }
+        if (!out.isAfter(in)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "checkOut must be after checkIn"));
+        }
+        Map<String, Object> response = new HashMap<>();
+        if (propertyId != null) {
+            response.put("propertyId", propertyId);
+            response.put("available", availabilityEngine.isAvailable(propertyId, in, out));
+        } else if (propertyIds != null) {
+            response.put("available", availabilityEngine.availableAmong(propertyIds, in, out));
+        } else {
+            return ResponseEntity.badRequest().body(Map.of("error", "propertyId or propertyIds is required"));
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    /** The signed-in user's bookings; only an admin may ask for someone else's by email. */
     @GetMapping("/user")
-    public ResponseEntity<?> getUserBookings(@RequestParam(required = false) String email) {
-        // TODO: Implement actual user bookings retrieval
+    public ResponseEntity<?> getUserBookings(@RequestParam(required = false) String email,
+                                             @AuthenticationPrincipal AuthenticatedUser principal) {
+        email = subjectEmail(email, principal);
+        if (email == null) return FORBIDDEN;
+        List<BookingView> bookings = bookingRepository.findViewsByUserEmail(email);
+        double totalSpent = 0;
+        for (BookingView b : bookings) {
+            if (!Booking.STATUS_CANCELLED.equals(b.status())) totalSpent += b.totalAmount();
+        }
         Map<String, Object> response = new HashMap<>();
         response.put("message", "User bookings retrieved");
-        response.put("bookings", new Object[0]); // Empty array for now
+        response.put("bookings", bookings);
+        response.put("totalSpent", totalSpent);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Owner dashboard for the window [from, to), defaulting to the current
+     * month: the bookings overlapping it, plus per-listing and overall
+     * revenue and occupancy read from the daily rollup. Always the signed-in
+     * owner's own listings unless an admin names another owner by email.
+     */
     @GetMapping("/owner")
-    public ResponseEntity<?> getOwnerBookings(@RequestParam(required = false) String email) {
-        // TODO: Implement actual owner bookings retrieval
+    public ResponseEntity<?> getOwnerBookings(@RequestParam(required = false) String email,
+                                              @RequestParam(required = false) String from,
+                                              @RequestParam(required = false) String to,
+                                              @AuthenticationPrincipal AuthenticatedUser principal) {
+        email = subjectEmail(email, principal);
+        if (email == null) return FORBIDDEN;
+        LocalDate start, end;
+        try {
+            start = from != null ? LocalDate.parse(from) : LocalDate.now().withDayOfMonth(1);
+            end = to != null ? LocalDate.parse(to) : start.plusMonths(1);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Dates must be yyyy-MM-dd"));
+        }
+        if (!end.isAfter(start)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "to must be after from"));
+        }
+
+        List<PropertyStats> stats = bookingRollupRepository.findOwnerStats(email, start, end);
+        long nights = 0, checkIns = 0;
+        double revenue = 0;
+        for (PropertyStats s : stats) {
+            nights += s.bookedNights();
+            checkIns += s.checkIns();
+            revenue += s.revenue();
+        }
+        long capacity = stats.size() * ChronoUnit.DAYS.between(start, end);
+        Map<String, Object> totals = new HashMap<>();
+        totals.put("revenue", revenue);
+        totals.put("checkIns", checkIns);
+        totals.put("bookedNights", nights);
+        totals.put("occupancyRate", capacity > 0 ? (double) nights / capacity : 0.0);
+
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Owner bookings retrieved");
-        response.put("bookings", new Object[0]); // Empty array for now
+        response.put("from", start);
+        response.put("to", end);
+        response.put("bookings", bookingRepository.findViewsByOwnerEmail(email, start, end));
+        response.put("properties", stats);
+        response.put("totals", totals);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Changes a booking's status. The guest who booked may only cancel; the
+     * listing's owner and admins may also confirm, complete or reinstate.
+     * Only {@code status} is read: the payment status is the server's.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateBooking(@PathVariable String id, @RequestBody Map<String, Object> bookingData) {
-        // TODO: Implement actual booking update logic
+    public ResponseEntity<?> updateBooking(@PathVariable Long id, @RequestBody Map<String, Object> bookingData,
+                                           @AuthenticationPrincipal AuthenticatedUser principal) {
+        Optional<Booking> bookingOpt = bookingRepository.findById(id);
+        if (bookingOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (bookingData.get("status") == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "status is required"));
+        }
+        Booking booking;
+        try {
+            BookingStatus status = BookingStatus.fromParam(String.valueOf(bookingData.get("status")));
+            if (!mayUpdate(bookingOpt.get(), status, principal)) return FORBIDDEN;
+            booking = bookingService.updateStatus(bookingOpt.get(), status);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Booking updated successfully");
         response.put("bookingId", id);
+        response.put("status", booking.getStatus());
         return ResponseEntity.ok(response);
     }
-} 
\ No newline at end of file
+
+    /** The email to report on, or null if the caller may not see that user's data. */
+    private static String subjectEmail(String requested, AuthenticatedUser principal) {
+        if (requested == null || requested.isBlank() || requested.equalsIgnoreCase(principal.email())) {
+            return principal.email();
+        }
+        return isAdmin(principal) ? requested : null;
+    }
+
+    private boolean mayUpdate(Booking booking, BookingStatus status, AuthenticatedUser principal) {
+        if (isAdmin(principal)) return true;
+        // Owner id from the cached detail row; the booking's property is a lazy proxy
+        boolean owner = propertyRepository.findDetailById(booking.getPropertyId())
+            .map(detail -> Objects.equals(detail.ownerId(), principal.id()))
+            .orElse(false);
+        if (owner) return true;
+        return status == BookingStatus.CANCELLED && Objects.equals(booking.getUserId(), principal.id());
+    }
+
+    private static boolean isAdmin(AuthenticatedUser principal) {
+        return "admin".equalsIgnoreCase(principal.role());
+    }
+
+    private static Long toLong(Object value) {
+        if (value instanceof Number n) return n.longValue();
+        if (value == null) throw new NumberFormatException("missing");
+        return Long.parseLong(value.toString());
+    }
+}
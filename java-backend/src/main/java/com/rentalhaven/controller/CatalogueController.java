@@ -0,0 +1,87 @@
+package com.rentalhaven.controller;
+
+import com.rentalhaven.service.CatalogueGenerator;
+import com.rentalhaven.service.CatalogueService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/catalogue")
+public class CatalogueController {
+    @Autowired
+    private CatalogueService catalogueService;
+    @Autowired
+    private CatalogueGenerator catalogueGenerator;
+
+    /**
+     * Imports listings from the raw request body: NDJSON by default, CSV with
+     * {@code format=csv} or {@code Content-Type: text/csv}.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<?> importProperties(@RequestParam(required = false) String format,
+                                              @RequestParam(required = false) Long ownerId,
+                                              HttpServletRequest request) {
+        CatalogueService.Format parsed;
+        try {
+            parsed = CatalogueService.Format.fromParam(format, request.getContentType());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        try {
+            CatalogueService.ImportResult result = catalogueService.importProperties(request.getInputStream(), parsed, ownerId);
+            Map<String, Object> response = new HashMap<>();
+            response.put("imported", result.imported());
+            response.put("rejected", result.rejected());
+            response.put("errors", result.errors());
+            return ResponseEntity.ok(response);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Could not read the import file: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/export")
+    public void exportProperties(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        CatalogueService.Format parsed;
+        try {
+            parsed = CatalogueService.Format.fromParam(format, null);
+        } catch (IllegalArgumentException e) {
+            response.sendError(400, e.getMessage());
+            return;
+        }
+        boolean csv = parsed == CatalogueService.Format.CSV;
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson");
+        response.setHeader("Content-Disposition", "attachment; filename=\"properties." + (csv ? "csv" : "ndjson") + "\"");
+        catalogueService.exportProperties(response.getOutputStream(), parsed);
+    }
+
+    /** Starts a seeded synthetic data run; poll GET /generate for progress. */
+    @PostMapping("/generate")
+    public ResponseEntity<?> generate(@RequestParam(defaultValue = "1000") int users,
+                                      @RequestParam(defaultValue = "10000") int properties,
+                                      @RequestParam(defaultValue = "50000") int bookings,
+                                      @RequestParam(defaultValue = "42") long seed) {
+        try {
+            return ResponseEntity.accepted().body(catalogueGenerator.start(new CatalogueGenerator.Request(users, properties, bookings, seed)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/generate")
+    public ResponseEntity<?> generationStatus() {
+        CatalogueGenerator.Status status = catalogueGenerator.getStatus();
+        if (status == null) {
+            return ResponseEntity.ok(Map.of("phase", "idle"));
+        }
+        return ResponseEntity.ok(status);
+    }
+}
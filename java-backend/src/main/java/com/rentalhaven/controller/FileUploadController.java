@@ -1,27 +1,75 @@
 package com.rentalhaven.controller;
 
+import com.rentalhaven.service.MediaStore;
+import com.rentalhaven.service.ThumbnailService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/files")
 public class FileUploadController {
-    private static final String UPLOAD_DIR = "uploads/";
+    @Autowired
+    private MediaStore mediaStore;
+    @Autowired
+    private ThumbnailService thumbnailService;
 
+    /**
+     * Stores the "file" part in {@link MediaStore} and returns once the
+     * original is on disk; thumbnails follow in the background. The container
+     * spools parts straight to disk (file-size-threshold 0), so an upload is
+     * never held in memory, and the type is taken from the file's bytes.
+     */
     @PostMapping("/upload")
-    public ResponseEntity<?> uploadFile(@RequestParam("file") MultipartFile file) {
-        try {
-            File dir = new File(UPLOAD_DIR);
-            if (!dir.exists()) dir.mkdirs();
-            String filePath = UPLOAD_DIR + file.getOriginalFilename();
-            file.transferTo(new File(filePath));
-            return ResponseEntity.ok("File uploaded: " + file.getOriginalFilename());
+    public ResponseEntity<?> uploadFile(@RequestParam(value = "file", required = false) MultipartFile file) {
+        if (file == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Missing file part"));
+        }
+        MediaStore.StoredMedia media;
+        try (InputStream in = file.getInputStream()) {
+            media = mediaStore.store(in);
+        } catch (MediaStore.UnsupportedMediaException e) {
+            return ResponseEntity.status(415).body(Map.of("error", e.getMessage()));
+        } catch (MediaStore.MediaTooLargeException e) {
+            return ResponseEntity.status(413).body(Map.of("error", "File exceeds the upload limit"));
         } catch (IOException e) {
-            return ResponseEntity.status(500).body("File upload failed");
+            return ResponseEntity.status(500).body(Map.of("error", "File upload failed"));
+        }
+        boolean queued = media.duplicate() || thumbnailService.submit(media);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", media.duplicate() ? "File already stored" : "File uploaded");
+        response.put("hash", media.hash());
+        response.put("file", media.hash() + "." + media.ext());
+        response.put("url", "/api/media/" + media.hash() + "." + media.ext());
+        Map<String, String> thumbnails = new HashMap<>();
+        for (String variant : ThumbnailService.VARIANTS.keySet()) {
+            thumbnails.put(variant, "/api/media/" + media.hash() + "-" + variant + ".jpg");
         }
+        response.put("thumbnails", thumbnails);
+        response.put("size", media.size());
+        response.put("contentType", media.contentType());
+        response.put("duplicate", media.duplicate());
+        response.put("thumbnailsQueued", queued);
+        return ResponseEntity.ok(response);
+    }
+
+    // Multipart is resolved lazily, so size and parse failures surface here rather than in the dispatcher
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<?> tooLarge(MaxUploadSizeExceededException e) {
+        return ResponseEntity.status(413).body(Map.of("error", "File exceeds the upload limit"));
+    }
+
+    @ExceptionHandler(MultipartException.class)
+    public ResponseEntity<?> notMultipart(MultipartException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", "Expected a multipart/form-data upload"));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,175 @@
+package com.rentalhaven.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rentalhaven.service.MediaStore;
+import com.rentalhaven.service.ThumbnailService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves files from {@link MediaStore}. Names are content hashes, so every
+ * response is immutable: long-lived Cache-Control, the hash as a strong ETag,
+ * and single-range requests for partial downloads.
+ *
+ * Small files (thumbnails, mostly) are kept in a weight-bounded heap cache.
+ * Larger ones are handed to Tomcat's sendfile, which copies them with zero
+ * user-space copies from its poller after this method has returned, so the
+ * request thread is not tied up; without sendfile they go out through
+ * {@link FileChannel#transferTo}.
+ */
+@RestController
+@RequestMapping("/api/media")
+public class MediaController {
+    private static final Pattern NAME = Pattern.compile("([0-9a-f]{64})(?:-(card|detail)\\.jpg|\\.(jpg|png|gif))");
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d{0,18})-(\\d{0,18})");
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private MediaStore mediaStore;
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    private final long hotFileMaxBytes;
+    private final Cache<Path, byte[]> hotFiles;
+
+    public MediaController(@Value("${rentalhaven.media.hot-cache-size:64MB}") DataSize hotCacheSize,
+                           @Value("${rentalhaven.media.hot-file-max-size:256KB}") DataSize hotFileMaxSize) {
+        this.hotFileMaxBytes = hotFileMaxSize.toBytes();
+        this.hotFiles = Caffeine.newBuilder()
+            .maximumWeight(hotCacheSize.toBytes())
+            .weigher((Path path, byte[] bytes) -> bytes.length)
+            .build();
+    }
+
+    @GetMapping("/{name:.+}")
+    public void getMedia(@PathVariable String name, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Matcher m = NAME.matcher(name);
+        if (!m.matches()) {
+            response.sendError(404);
+            return;
+        }
+        // Derivatives are always JPEG; originals keep their upload format
+        String hash = m.group(1), variant = m.group(2), ext = variant != null ? "jpg" : m.group(3);
+        Path path = variant == null ? mediaStore.pathFor(hash, ext) : mediaStore.derivativePath(hash, variant);
+        String contentType = MediaStore.contentTypeOf(ext);
+        String cacheControl = IMMUTABLE;
+        String etag = "\"" + hash + (variant != null ? "-" + variant : "") + "\"";
+
+        if (!Files.exists(path)) {
+            Optional<Path> original = variant != null ? mediaStore.findOriginal(hash) : Optional.empty();
+            if (original.isEmpty()) {
+                response.sendError(404);
+                return;
+            }
+            // Derivative not generated yet: serve the original briefly and queue it unless
+            // a job is already pending or the image is known not to decode
+            thumbnailService.submit(hash, original.get());
+            path = original.get();
+            String fileName = path.getFileName().toString();
+            contentType = MediaStore.contentTypeOf(fileName.substring(fileName.lastIndexOf('.') + 1));
+            cacheControl = "public, max-age=60";
+            etag = null;
+        }
+
+        response.setHeader("Cache-Control", cacheControl);
+        response.setHeader("Accept-Ranges", "bytes");
+        if (etag != null) {
+            response.setHeader("ETag", etag);
+            String ifNoneMatch = request.getHeader("If-None-Match");
+            if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+                response.setStatus(304);
+                return;
+            }
+        }
+        response.setContentType(contentType);
+
+        long size = Files.size(path);
+        long start = 0, end = size - 1;
+        Range range = parseRange(request.getHeader("Range"), size);
+        boolean partial = range != null;
+        if (range == Range.NOT_SATISFIABLE) {
+            response.setHeader("Content-Range", "bytes */" + size);
+            response.setStatus(416);
+            return;
+        }
+        if (partial) {
+            start = range.start();
+            end = range.end();
+            response.setStatus(206);
+            response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + size);
+        }
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod())) return;
+
+        if (!partial && size <= hotFileMaxBytes) {
+            // Read outside the cache's compute: that holds a map bin monitor,
+            // which would pin a virtual thread for the length of the read
+            byte[] bytes = hotFiles.getIfPresent(path);
+            if (bytes == null) {
+                bytes = Files.readAllBytes(path);
+                hotFiles.put(path, bytes);
+            }
+            response.getOutputStream().write(bytes);
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                position += file.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
+
+    /** An inclusive byte range of a file. */
+    record Range(long start, long end) {
+        static final Range NOT_SATISFIABLE = new Range(-1, -1);
+    }
+
+    /**
+     * Parses a single-range {@code Range} header against a file of {@code size}
+     * bytes. Returns null to serve the whole file, which is also what
+     * multi-range and malformed headers get, or {@link Range#NOT_SATISFIABLE}
+     * when the range starts past the end.
+     */
+    static Range parseRange(String header, long size) {
+        if (header == null) return null;
+        Matcher r = RANGE.matcher(header.trim());
+        if (!r.matches() || (r.group(1).isEmpty() && r.group(2).isEmpty())) return null;
+        long start, end = size - 1;
+        if (r.group(1).isEmpty()) {
+            start = Math.max(0, size - Long.parseLong(r.group(2)));
+        } else {
+            start = Long.parseLong(r.group(1));
+            if (!r.group(2).isEmpty()) end = Math.min(end, Long.parseLong(r.group(2)));
+        }
+        return start > end || start >= size ? Range.NOT_SATISFIABLE : new Range(start, end);
+    }
+}
@@ -1,44 +1,223 @@
 package com.rentalhaven.controller;
 
+import com.rentalhaven.dto.PropertyCard;
+import com.rentalhaven.dto.PropertyDetail;
+import com.rentalhaven.dto.PropertyRequest;
+import com.rentalhaven.dto.PropertyStamp;
 import com.rentalhaven.model.Property;
 import com.rentalhaven.model.User;
+import com.rentalhaven.repository.PropertyCursor;
+import com.rentalhaven.repository.PropertyFilter;
+import com.rentalhaven.repository.PropertyIndex;
 import com.rentalhaven.repository.PropertyRepository;
+import com.rentalhaven.repository.PropertySort;
 import com.rentalhaven.repository.UserRepository;
+import com.rentalhaven.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.rentalhaven.repository.PropertySpecifications.after;
 
 @RestController
 @RequestMapping("/api/properties")
 public class PropertyController {
+    private static final int DEFAULT_PAGE_SIZE = 24;
+    private static final int MAX_PAGE_SIZE = 100;
+    // Shared caches may store responses but must revalidate them with the ETag every time
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+
     @Autowired
     private PropertyRepository propertyRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private PropertyIndex propertyIndex;
 
+    /**
+     * Filtered, sorted listing, one page at a time. Pages are addressed by an
+     * opaque seek cursor on (sort key, id) rather than an offset, so deep pages
+     * cost the same as the first one. Served from {@link PropertyIndex} (which
+     * also yields the total and facet counts on the first page) once it is
+     * built, otherwise straight from SQL.
+     * While the index is serving, the catalogue version doubles as an ETag and
+     * a matching If-None-Match is answered 304 before any query runs.
+     */
     @GetMapping
-    public List<Property> getAllProperties() {
-        return propertyRepository.findAll();
+    public ResponseEntity<?> getAllProperties(@RequestParam(required = false) String city,
+                                              @RequestParam(required = false) String state,
+                                              @RequestParam(required = false) String location,
+                                              @RequestParam(required = false) String type,
+                                              @RequestParam(required = false) Double minPrice,
+                                              @RequestParam(required = false) Double maxPrice,
+                                              @RequestParam(required = false) Double minRating,
+                                              @RequestParam(required = false) String sort,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer limit,
+                                              WebRequest request) {
+        PropertySort order;
+        PropertyCursor after;
+        try {
+            order = PropertySort.fromParam(sort);
+            after = PropertyCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        PropertyFilter filter = new PropertyFilter(city, state, location, type, minPrice, maxPrice, minRating);
+
+        Map<String, Object> response = new HashMap<>();
+        if (propertyIndex.isReady()) {
+            String etag = "\"c" + propertyIndex.catalogueTag() + "\"";
+            long lastModified = propertyIndex.catalogueModified();
+            if (request.checkNotModified(etag, lastModified)) {
+                return null;
+            }
+            PropertyIndex.Result result = propertyIndex.search(filter, order, after, pageSize);
+            response.put("items", loadInOrder(result.getIds()));
+            response.put("nextCursor", result.getNextCursor() != null ? result.getNextCursor().encode() : null);
+            if (after == null) {
+                response.put("total", result.getTotal());
+                response.put("facets", result.getFacets());
+            }
+            return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag).lastModified(lastModified).body(response);
+        }
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<PropertyCard> rows = propertyRepository.findCards(filter.toSpecification().and(after(order, after)),
+            order.toSort(), pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<PropertyCard> items = hasMore ? rows.subList(0, pageSize) : rows;
+        response.put("items", items);
+        response.put("nextCursor", hasMore ? PropertyCursor.of(order, items.get(items.size() - 1)).encode() : null);
+        return ResponseEntity.ok(response);
     }
 
+    /**
+     * Property detail with a strong ETag from the row's version. The version
+     * comes from the index, so a matching If-None-Match is answered 304
+     * without loading the property. Before the index is built, or when it does
+     * not have the property yet (saved by another instance, or between commit
+     * and upsert), a one-column query supplies it instead.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getPropertyById(@PathVariable Long id) {
-        return propertyRepository.findById(id)
-            .map(ResponseEntity::ok)
+    public ResponseEntity<?> getPropertyById(@PathVariable Long id, WebRequest request) {
+        PropertyStamp stamp = propertyIndex.isReady() ? propertyIndex.stampOf(id) : null;
+        if (stamp == null) {
+            stamp = propertyRepository.findStampById(id).orElse(null);
+        }
+        if (stamp == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = "\"p" + id + "-" + stamp.version() + "\"";
+        long lastModified = stamp.updatedAt() != null ? stamp.updatedAt().toEpochMilli() : -1;
+        if (request.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        return propertyRepository.findDetailById(id)
+            .<ResponseEntity<?>>map(detail -> {
+                ResponseEntity.BodyBuilder ok = ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag);
+                if (lastModified >= 0) ok.lastModified(lastModified);
+                return ok.body(detail);
+            })
             .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Ranked free-text search over title, description, city and type,
+     * optionally narrowed by the listing filters. Results come back best match
+     * first, paged with the same opaque cursor as the listing. Served only from
+     * {@link PropertyIndex}; until it is built the answer is 503.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchProperties(@RequestParam(required = false) String q,
+                                              @RequestParam(required = false) String city,
+                                              @RequestParam(required = false) String state,
+                                              @RequestParam(required = false) String location,
+                                              @RequestParam(required = false) String type,
+                                              @RequestParam(required = false) Double minPrice,
+                                              @RequestParam(required = false) Double maxPrice,
+                                              @RequestParam(required = false) Double minRating,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer limit,
+                                              WebRequest request) {
+        if (q == null || q.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Query parameter q is required"));
+        }
+        PropertyCursor after;
+        try {
+            after = PropertyCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        if (!propertyIndex.isReady()) {
+            return ResponseEntity.status(503).header("Retry-After", "5")
+                .body(Map.of("error", "Search is starting up, try again shortly"));
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        String etag = "\"c" + propertyIndex.catalogueTag() + "\"";
+        long lastModified = propertyIndex.catalogueModified();
+        if (request.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        PropertyFilter filter = new PropertyFilter(city, state, location, type, minPrice, maxPrice, minRating);
+        PropertyIndex.Result result = propertyIndex.searchText(q, filter, after, pageSize);
+        Map<String, Object> response = new HashMap<>();
+        response.put("items", loadInOrder(result.getIds()));
+        response.put("nextCursor", result.getNextCursor() != null ? result.getNextCursor().encode() : null);
+        response.put("total", result.getTotal());
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag).lastModified(lastModified).body(response);
+    }
+
+    /**
+     * Creates a listing owned by the signed-in owner or admin; SecurityConfig
+     * turns away everyone else. Only the fields of {@link PropertyRequest} are
+     * read from the body.
+     */
     @PostMapping
-    public ResponseEntity<?> addProperty(@RequestBody Property property, @RequestParam Long ownerId) {
-        Optional<User> ownerOpt = userRepository.findById(ownerId);
+    public ResponseEntity<?> addProperty(@RequestBody PropertyRequest request,
+                                         @AuthenticationPrincipal AuthenticatedUser principal) {
+        if (isBlank(request.title()) || isBlank(request.description()) || isBlank(request.city())
+                || isBlank(request.state()) || isBlank(request.type())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "title, description, city, state and type are required"));
+        }
+        if (request.pricePerNight() == null || !(request.pricePerNight() > 0)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "pricePerNight must be positive"));
+        }
+        Optional<User> ownerOpt = userRepository.findById(principal.id());
         if (ownerOpt.isEmpty()) {
-            return ResponseEntity.badRequest().body("Owner not found");
+            return ResponseEntity.badRequest().body(Map.of("error", "Owner not found"));
         }
+        Property property = request.toProperty();
         property.setOwner(ownerOpt.get());
         propertyRepository.save(property);
-        return ResponseEntity.ok(property);
+        propertyIndex.upsert(property);
+        return ResponseEntity.ok(PropertyDetail.of(property));
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+
+    private List<PropertyCard> loadInOrder(long[] ids) {
+        if (ids.length == 0) return List.of();
+        List<Long> idList = Arrays.stream(ids).boxed().toList();
+        Map<Long, PropertyCard> byId = propertyRepository.findCardsByIdIn(idList).stream()
+            .collect(Collectors.toMap(PropertyCard::id, Function.identity()));
+        List<PropertyCard> ordered = new ArrayList<>(ids.length);
+        for (Long id : idList) {
+            PropertyCard p = byId.get(id);
+            if (p != null) ordered.add(p);
+        }
+        return ordered;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.rentalhaven.controller;
+
+import com.rentalhaven.repository.PropertyIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/property-index")
+public class PropertyIndexController {
+    @Autowired
+    private PropertyIndex propertyIndex;
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats() {
+        return ResponseEntity.ok(propertyIndex.footprint());
+    }
+
+    @GetMapping("/verify")
+    public ResponseEntity<?> verify() {
+        return ResponseEntity.ok(propertyIndex.verify());
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuild() {
+        propertyIndex.rebuild();
+        return ResponseEntity.ok(Map.of("message", "Property index rebuilt"));
+    }
+}
@@ -2,6 +2,7 @@ package com.rentalhaven.controller;
 
 import com.rentalhaven.model.Property;
 import com.rentalhaven.model.User;
+import com.rentalhaven.repository.PropertyIndex;
 import com.rentalhaven.repository.PropertyRepository;
 import com.rentalhaven.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +22,8 @@ public class SeedController {
     private PropertyRepository propertyRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private PropertyIndex propertyIndex;
 
     @PostMapping
     public ResponseEntity<?> seedProperties() {
@@ -58,7 +61,7 @@ public class SeedController {
             createProperty("1BHK in Thiruvananthapuram", "1BHK in Kowdiar, Thiruvananthapuram. Quiet area.", 13000.0, "Thiruvananthapuram", "Kerala", "apartment", owner),
             createProperty("2BHK in Mysore", "2BHK in VV Mohalla, Mysore. Close to parks.", 14000.0, "Mysore", "Karnataka", "apartment", owner)
         );
-        propertyRepository.saveAll(properties);
+        propertyRepository.saveAll(properties).forEach(propertyIndex::upsert);
         return ResponseEntity.ok("Sample properties added.");
     }
 
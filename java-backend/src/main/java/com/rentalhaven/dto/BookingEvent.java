@@ -0,0 +1,24 @@
+package com.rentalhaven.dto;
+
+import com.rentalhaven.model.Booking;
+
+import java.time.LocalDate;
+
+/** Latest state of one booking, as pushed to WebSocket subscribers. */
+public record BookingEvent(
+    Long bookingId,
+    Long propertyId,
+    LocalDate checkIn,
+    LocalDate checkOut,
+    String status,
+    String paymentStatus
+) {
+    public static BookingEvent of(Booking b) {
+        return new BookingEvent(b.getId(), b.getPropertyId(), b.getCheckIn(), b.getCheckOut(), b.getStatus(), b.getPaymentStatus());
+    }
+
+    /** The public view for property topics: dates and status, no payment details. */
+    public BookingEvent withoutPayment() {
+        return new BookingEvent(bookingId, propertyId, checkIn, checkOut, status, null);
+    }
+}
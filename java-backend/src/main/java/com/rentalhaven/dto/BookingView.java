@@ -0,0 +1,19 @@
+package com.rentalhaven.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/** A booking as listed on the renter and owner dashboards, with its property's title. */
+public record BookingView(
+    Long id,
+    Long propertyId,
+    String propertyTitle,
+    String propertyCity,
+    LocalDate checkIn,
+    LocalDate checkOut,
+    Integer guests,
+    Double totalAmount,
+    String status,
+    String paymentStatus,
+    LocalDateTime createdAt
+) {}
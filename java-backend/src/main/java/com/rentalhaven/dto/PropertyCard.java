@@ -0,0 +1,19 @@
+package com.rentalhaven.dto;
+
+/**
+ * What a listing card needs: no description, and only the owner's id and name.
+ * Built directly by constructor expressions in {@code PropertyRepository}.
+ */
+public record PropertyCard(
+    Long id,
+    String title,
+    Double pricePerNight,
+    String city,
+    String state,
+    String type,
+    String images,
+    Double rating,
+    Integer reviewCount,
+    Long ownerId,
+    String ownerName
+) {}
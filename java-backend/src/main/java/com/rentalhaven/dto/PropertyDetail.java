@@ -0,0 +1,30 @@
+package com.rentalhaven.dto;
+
+import com.rentalhaven.model.Property;
+
+/**
+ * Full property view for the details page. Carries the owner's id and name
+ * rather than the {@code User} entity, so no credentials can leak.
+ */
+public record PropertyDetail(
+    Long id,
+    String title,
+    String description,
+    Double price,
+    Double pricePerNight,
+    String city,
+    String state,
+    String type,
+    String images,
+    Double rating,
+    Integer reviewCount,
+    Long ownerId,
+    String ownerName
+) {
+    public static PropertyDetail of(Property p) {
+        return new PropertyDetail(p.getId(), p.getTitle(), p.getDescription(), p.getPrice(), p.getPricePerNight(),
+            p.getCity(), p.getState(), p.getType(), p.getImages(), p.getRating(), p.getReviewCount(),
+            p.getOwner() != null ? p.getOwner().getId() : null,
+            p.getOwner() != null ? p.getOwner().getName() : null);
+    }
+}
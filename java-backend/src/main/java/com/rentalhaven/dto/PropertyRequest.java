@@ -0,0 +1,26 @@
+package com.rentalhaven.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.rentalhaven.model.Property;
+
+/**
+ * New-listing body. Only these fields are accepted from the client; the id,
+ * owner, rating, review count and version are always set by the server.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record PropertyRequest(String title, String description, Double pricePerNight,
+                              String city, String state, String type, String images) {
+
+    /** A fresh, unsaved property with these fields. */
+    public Property toProperty() {
+        Property p = new Property();
+        p.setTitle(title.trim());
+        p.setDescription(description.trim());
+        p.setPricePerNight(pricePerNight);
+        p.setCity(city.trim());
+        p.setState(state.trim());
+        p.setType(type.trim());
+        p.setImages(images);
+        return p;
+    }
+}
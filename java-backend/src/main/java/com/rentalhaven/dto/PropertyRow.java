@@ -0,0 +1,31 @@
+package com.rentalhaven.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.rentalhaven.model.Property;
+
+/**
+ * One listing in a bulk import or export file (NDJSON line or CSV row).
+ * {@code id} is written on export and ignored on import.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"id", "title", "description", "pricePerNight", "city", "state", "type", "images", "rating", "reviewCount", "ownerId"})
+public record PropertyRow(
+    Long id,
+    String title,
+    String description,
+    Double pricePerNight,
+    String city,
+    String state,
+    String type,
+    String images,
+    Double rating,
+    Integer reviewCount,
+    Long ownerId
+) {
+    public static PropertyRow of(Property p) {
+        return new PropertyRow(p.getId(), p.getTitle(), p.getDescription(), p.getPricePerNight(), p.getCity(),
+            p.getState(), p.getType(), p.getImages(), p.getRating(), p.getReviewCount(),
+            p.getOwner() != null ? p.getOwner().getId() : null);
+    }
+}
@@ -0,0 +1,6 @@
+package com.rentalhaven.dto;
+
+import java.time.Instant;
+
+/** Just enough of a property to answer a conditional GET. */
+public record PropertyStamp(Long version, Instant updatedAt) {}
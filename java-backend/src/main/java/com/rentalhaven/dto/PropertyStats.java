@@ -0,0 +1,11 @@
+package com.rentalhaven.dto;
+
+/** One owner listing's bookings, nights and revenue within a dashboard window. */
+public record PropertyStats(
+    Long propertyId,
+    String title,
+    long checkIns,
+    long bookedNights,
+    double revenue,
+    double occupancyRate
+) {}
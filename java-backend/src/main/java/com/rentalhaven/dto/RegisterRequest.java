@@ -0,0 +1,10 @@
+package com.rentalhaven.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Self-registration body. Only these fields are accepted from the client; the
+ * id is always assigned by the database and the role must be a public one.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record RegisterRequest(String email, String password, String name, String mobile, String role) {}
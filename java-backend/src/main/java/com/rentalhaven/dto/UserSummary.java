@@ -0,0 +1,4 @@
+package com.rentalhaven.dto;
+
+/** A user without credentials; the only user shape that may be cached. */
+public record UserSummary(Long id, String email, String name, String mobile, String role) {}
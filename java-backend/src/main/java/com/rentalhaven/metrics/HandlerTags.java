@@ -0,0 +1,20 @@
+package com.rentalhaven.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/** Names the controller method that handled a request, e.g. "PropertyController.getProperty". */
+final class HandlerTags {
+    static final String NONE = "none";
+
+    private HandlerTags() {}
+
+    static String handler(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,30 @@
+package com.rentalhaven.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.hibernate.cfg.JdbcSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounter() {
+        return properties -> properties.put(JdbcSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    /** Adds the controller method to http.server.requests, next to the uri template. */
+    @Bean
+    public DefaultServerRequestObservationConvention handlerTaggingConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context)
+                    .and(KeyValue.of("handler", HandlerTags.handler(context.getCarrier())));
+            }
+        };
+    }
+}
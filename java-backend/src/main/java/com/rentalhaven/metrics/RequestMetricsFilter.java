@@ -0,0 +1,65 @@
+package com.rentalhaven.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request ran, per controller method, as
+ * the {@code http.server.requests.statements} summary. A request that runs
+ * more than {@code statement-warn-threshold} statements is logged, which is
+ * usually an N+1 that slipped in.
+ *
+ * Only statements on the request thread are counted; work a handler hands to
+ * another executor (registration, login) is not.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    private final MeterRegistry registry;
+    private final int warnThreshold;
+
+    public RequestMetricsFilter(MeterRegistry registry,
+                                @Value("${rentalhaven.metrics.statement-warn-threshold:20}") int warnThreshold) {
+        this.registry = registry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = SqlStatementCounter.stop();
+            String handler = HandlerTags.handler(request);
+            if (!HandlerTags.NONE.equals(handler)) {
+                DistributionSummary.builder("http.server.requests.statements")
+                    .description("SQL statements run per request")
+                    .baseUnit("statements")
+                    .tag("handler", handler)
+                    .serviceLevelObjectives(1, 2, 5, 10, 20, 50)
+                    .register(registry)
+                    .record(statements);
+                if (statements > warnThreshold) {
+                    log.warn("{} {} ran {} SQL statements ({})", request.getMethod(), request.getRequestURI(), statements, handler);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.rentalhaven.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a
+ * count is open. {@link RequestMetricsFilter} opens one per request, so
+ * queries issued outside a request (startup, background jobs) are ignored.
+ * The SQL text is returned unchanged.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) count[0]++;
+        return sql;
+    }
+
+    static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /** Closes the current thread's count and returns it. */
+    static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count != null ? count[0] : 0;
+    }
+}
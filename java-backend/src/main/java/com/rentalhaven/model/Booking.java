@@ -0,0 +1,98 @@
+package com.rentalhaven.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "bookings", indexes = {
+    @Index(name = "idx_bookings_property_check_in", columnList = "property_id, check_in"),
+    @Index(name = "idx_bookings_user", columnList = "user_id")
+})
+public class Booking {
+    public static final String STATUS_PENDING = "pending";
+    public static final String STATUS_CONFIRMED = "confirmed";
+    public static final String STATUS_CANCELLED = "cancelled";
+    public static final String STATUS_COMPLETED = "completed";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "property_id", nullable = false)
+    private Property property;
+
+    // Nights are [checkIn, checkOut): the check-out day is free for the next guest
+    @Column(nullable = false)
+    private LocalDate checkIn;
+
+    @Column(nullable = false)
+    private LocalDate checkOut;
+
+    @Column(nullable = false)
+    private Integer guests;
+
+    @Column(nullable = false)
+    private Double totalAmount;
+
+    @Column(nullable = false)
+    private String status = STATUS_PENDING;
+
+    /** Owned by the server; no request can change it. */
+    @Column(nullable = false)
+    private String paymentStatus = "pending";
+
+    @Column(nullable = true)
+    private String idVerification;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    @PreUpdate
+    void touch() { updatedAt = LocalDateTime.now(); }
+
+    public boolean isActive() { return !STATUS_CANCELLED.equals(status); }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+    public Property getProperty() { return property; }
+    public void setProperty(Property property) { this.property = property; }
+    // Reading the id off a lazy proxy does not initialise it
+    @JsonProperty("userId")
+    public Long getUserId() { return user != null ? user.getId() : null; }
+    @JsonProperty("propertyId")
+    public Long getPropertyId() { return property != null ? property.getId() : null; }
+    public LocalDate getCheckIn() { return checkIn; }
+    public void setCheckIn(LocalDate checkIn) { this.checkIn = checkIn; }
+    public LocalDate getCheckOut() { return checkOut; }
+    public void setCheckOut(LocalDate checkOut) { this.checkOut = checkOut; }
+    public Integer getGuests() { return guests; }
+    public void setGuests(Integer guests) { this.guests = guests; }
+    public Double getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(String paymentStatus) { this.paymentStatus = paymentStatus; }
+    public String getIdVerification() { return idVerification; }
+    public void setIdVerification(String idVerification) { this.idVerification = idVerification; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,30 @@
+package com.rentalhaven.model;
+
+import java.util.Locale;
+
+/** Lifecycle of a booking; stored as the lowercase value in {@code bookings.status}. */
+public enum BookingStatus {
+    PENDING(Booking.STATUS_PENDING),
+    CONFIRMED(Booking.STATUS_CONFIRMED),
+    CANCELLED(Booking.STATUS_CANCELLED),
+    COMPLETED(Booking.STATUS_COMPLETED);
+
+    private final String value;
+
+    BookingStatus(String value) {
+        this.value = value;
+    }
+
+    public String value() { return value; }
+
+    /** Accepts the stored values case-insensitively. */
+    public static BookingStatus fromParam(String value) {
+        if (value != null) {
+            String lower = value.toLowerCase(Locale.ROOT);
+            for (BookingStatus status : values()) {
+                if (status.value.equals(lower)) return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown booking status: " + value);
+    }
+}
@@ -1,12 +1,27 @@
 package com.rentalhaven.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 
+import java.time.Instant;
+
 @Entity
-@Table(name = "properties")
+@Table(name = "properties", indexes = {
+    // Composite (filter, sort key, id) indexes back the keyset-paginated search
+    @Index(name = "idx_properties_rating_id", columnList = "rating, id"),
+    @Index(name = "idx_properties_price_id", columnList = "price_per_night, id"),
+    @Index(name = "idx_properties_city_price_id", columnList = "city, price_per_night, id"),
+    @Index(name = "idx_properties_city_rating_id", columnList = "city, rating, id"),
+    @Index(name = "idx_properties_state_price_id", columnList = "state, price_per_night, id"),
+    @Index(name = "idx_properties_type_price_id", columnList = "type, price_per_night, id"),
+    // Owner dashboards and owner booking lists find listings by owner
+    @Index(name = "idx_properties_owner", columnList = "owner_id")
+})
 public class Property {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence: ids are reserved 50 at a time, so inserts can be JDBC-batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "properties_seq")
+    @SequenceGenerator(name = "properties_seq", sequenceName = "properties_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -39,10 +54,23 @@ public class Property {
     @Column(nullable = false)
     private Integer reviewCount = 0;
 
-    @ManyToOne
+    // Bumped on every update; property ETags are derived from it (see PropertyController)
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant updatedAt;
+
+    // Read paths project the owner's id and name via joins in PropertyRepository
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private User owner;
 
+    @PrePersist
+    @PreUpdate
+    void touch() { updatedAt = Instant.now(); }
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -68,4 +96,6 @@ public class Property {
     public void setReviewCount(Integer reviewCount) { this.reviewCount = reviewCount; }
     public User getOwner() { return owner; }
     public void setOwner(User owner) { this.owner = owner; }
+    public Long getVersion() { return version; }
+    public Instant getUpdatedAt() { return updatedAt; }
 } 
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.rentalhaven.repository;
+
+import com.rentalhaven.dto.BookingView;
+import com.rentalhaven.model.Booking;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepository extends JpaRepository<Booking, Long> {
+    /** Dates held by a booking, without loading the booking itself. */
+    interface Stay {
+        Long getPropertyId();
+        LocalDate getCheckIn();
+        LocalDate getCheckOut();
+    }
+
+    /**
+     * Moves a booking from one status to another only if it is still in the
+     * first one; returns 0 if another request changed it in the meantime.
+     */
+    @Modifying
+    @Query("update Booking b set b.status = :to, b.updatedAt = :now where b.id = :id and b.status = :from")
+    int transitionStatus(Long id, String from, String to, LocalDateTime now);
+
+    // Only stays that have not ended yet can conflict with a new booking
+    @Query("select b.property.id as propertyId, b.checkIn as checkIn, b.checkOut as checkOut "
+         + "from Booking b where b.status <> 'cancelled' and b.checkOut > :from")
+    List<Stay> findActiveStaysEndingAfter(LocalDate from);
+
+    @Query("select new com.rentalhaven.dto.BookingView(b.id, p.id, p.title, p.city, b.checkIn, b.checkOut, b.guests, "
+         + "b.totalAmount, b.status, b.paymentStatus, b.createdAt) "
+         + "from Booking b join b.property p join b.user u where u.email = :email order by b.checkIn desc")
+    List<BookingView> findViewsByUserEmail(String email);
+
+    // Bookings on the owner's listings that overlap [from, to)
+    @Query("select new com.rentalhaven.dto.BookingView(b.id, p.id, p.title, p.city, b.checkIn, b.checkOut, b.guests, "
+         + "b.totalAmount, b.status, b.paymentStatus, b.createdAt) "
+         + "from Booking b join b.property p join p.owner o "
+         + "where o.email = :email and b.checkIn < :to and b.checkOut > :from order by p.id, b.checkIn")
+    List<BookingView> findViewsByOwnerEmail(String email, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,93 @@
+package com.rentalhaven.repository;
+
+import com.rentalhaven.dto.PropertyStats;
+import com.rentalhaven.model.Booking;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Maintains booking_daily_rollup (see schema.sql): one row per property per
+ * booked night. Every booking change adds or subtracts its nights in a single
+ * upsert, so owner dashboards read at most (listings x days in window) rows.
+ */
+@Repository
+public class BookingRollupRepository {
+    private static final String APPLY_SQL =
+        "INSERT INTO booking_daily_rollup (property_id, owner_id, day, booked_nights, check_ins, revenue) "
+      + "SELECT p.id, p.owner_id, d::date, ?, CASE WHEN d::date = ? THEN ? ELSE 0 END, ? "
+      + "FROM properties p CROSS JOIN generate_series(?::date, ?::date - 1, interval '1 day') d "
+      + "WHERE p.id = ? "
+      + "ON CONFLICT (property_id, day) DO UPDATE SET "
+      + "booked_nights = booking_daily_rollup.booked_nights + EXCLUDED.booked_nights, "
+      + "check_ins = booking_daily_rollup.check_ins + EXCLUDED.check_ins, "
+      + "revenue = booking_daily_rollup.revenue + EXCLUDED.revenue";
+
+    // The owner's rollup rows for the window come from one range scan of
+    // idx_booking_daily_rollup_owner_day; owner_id is copied from the listing
+    // when a night is written, and listings never change owner
+    private static final String OWNER_STATS_SQL =
+        "WITH o AS (SELECT id FROM users WHERE email = ?), "
+      + "r AS (SELECT r.property_id, SUM(r.check_ins) AS check_ins, SUM(r.booked_nights) AS nights, "
+      + "SUM(r.revenue) AS revenue FROM o JOIN booking_daily_rollup r ON r.owner_id = o.id "
+      + "AND r.day >= ? AND r.day < ? GROUP BY r.property_id) "
+      + "SELECT p.id, p.title, COALESCE(r.check_ins, 0), COALESCE(r.nights, 0), COALESCE(r.revenue, 0) "
+      + "FROM o JOIN properties p ON p.owner_id = o.id LEFT JOIN r ON r.property_id = p.id "
+      + "ORDER BY p.id";
+
+    private static final String REBUILD_SQL =
+        "INSERT INTO booking_daily_rollup (property_id, owner_id, day, booked_nights, check_ins, revenue) "
+      + "SELECT b.property_id, p.owner_id, d::date, 1, CASE WHEN d::date = b.check_in THEN 1 ELSE 0 END, "
+      + "b.total_amount / (b.check_out - b.check_in) "
+      + "FROM bookings b JOIN properties p ON p.id = b.property_id "
+      + "CROSS JOIN generate_series(b.check_in, b.check_out - 1, interval '1 day') d "
+      + "WHERE b.status <> 'cancelled'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /** Adds a live booking's nights to the rollup. */
+    public void add(Booking booking) {
+        apply(booking, 1);
+    }
+
+    /** Removes a booking's nights, e.g. when it is cancelled. */
+    public void subtract(Booking booking) {
+        apply(booking, -1);
+    }
+
+    private void apply(Booking booking, int sign) {
+        long nights = ChronoUnit.DAYS.between(booking.getCheckIn(), booking.getCheckOut());
+        double perNight = booking.getTotalAmount() / nights;
+        jdbcTemplate.update(APPLY_SQL, sign, booking.getCheckIn(), sign, sign * perNight,
+            booking.getCheckIn(), booking.getCheckOut(), booking.getPropertyId());
+    }
+
+    /**
+     * Recomputes the whole rollup from bookings in one transaction, after bulk
+     * loads that bypass {@link #add}. Bookings changed while it runs may be missed.
+     */
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            jdbcTemplate.execute("TRUNCATE booking_daily_rollup");
+            jdbcTemplate.update(REBUILD_SQL);
+        });
+    }
+
+    /** Per-listing totals for [from, to), every listing of the owner included. */
+    public List<PropertyStats> findOwnerStats(String ownerEmail, LocalDate from, LocalDate to) {
+        long days = ChronoUnit.DAYS.between(from, to);
+        return jdbcTemplate.query(OWNER_STATS_SQL, (rs, i) -> {
+            long nights = rs.getLong(4);
+            return new PropertyStats(rs.getLong(1), rs.getString(2), rs.getLong(3), nights, rs.getDouble(5),
+                days > 0 ? (double) nights / days : 0.0);
+        }, ownerEmail, from, to);
+    }
+}
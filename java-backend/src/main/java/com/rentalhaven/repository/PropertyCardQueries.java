@@ -0,0 +1,13 @@
+package com.rentalhaven.repository;
+
+import com.rentalhaven.dto.PropertyCard;
+import com.rentalhaven.model.Property;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/** Specification-driven card projection; Spring Data's fluent API cannot build DTOs from a specification. */
+public interface PropertyCardQueries {
+    List<PropertyCard> findCards(Specification<Property> spec, Sort sort, int limit);
+}
@@ -0,0 +1,35 @@
+package com.rentalhaven.repository;
+
+import com.rentalhaven.dto.PropertyCard;
+import com.rentalhaven.model.Property;
+import com.rentalhaven.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+class PropertyCardQueriesImpl implements PropertyCardQueries {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PropertyCard> findCards(Specification<Property> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PropertyCard> query = cb.createQuery(PropertyCard.class);
+        Root<Property> p = query.from(Property.class);
+        Join<Property, User> owner = p.join("owner", JoinType.LEFT);
+        query.select(cb.construct(PropertyCard.class,
+            p.get("id"), p.get("title"), p.get("pricePerNight"), p.get("city"), p.get("state"), p.get("type"),
+            p.get("images"), p.get("rating"), p.get("reviewCount"), owner.get("id"), owner.get("name")));
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(p, query, cb);
+            if (predicate != null) query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, p, cb));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,48 @@
+package com.rentalhaven.repository;
+
+import com.rentalhaven.dto.PropertyCard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a property listing: the sort key and id of the last row
+ * returned. Encoded as URL-safe base64 so clients pass it back untouched.
+ */
+public final class PropertyCursor {
+    private final double key;
+    private final long id;
+
+    public PropertyCursor(double key, long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public double getKey() { return key; }
+    public long getId() { return id; }
+
+    public static PropertyCursor of(PropertySort sort, PropertyCard last) {
+        double key = switch (sort) {
+            case RATING -> last.rating();
+            case PRICE_LOW, PRICE_HIGH -> last.pricePerNight();
+            case NEWEST -> last.id();
+        };
+        return new PropertyCursor(key, last.id());
+    }
+
+    public String encode() {
+        String raw = key + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PropertyCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(':');
+            return new PropertyCursor(Double.parseDouble(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.rentalhaven.repository;
+
+import com.rentalhaven.model.Property;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+
+import static com.rentalhaven.repository.PropertySpecifications.*;
+
+/**
+ * Listing filters shared by the SQL path and {@link PropertyIndex}; both must
+ * apply exactly the same semantics (exact facet match, inclusive ranges, and
+ * a location that matches any city or state containing it, ignoring case).
+ */
+public final class PropertyFilter {
+    private final String city;
+    private final String state;
+    private final String location;
+    private final String type;
+    private final Double minPrice;
+    private final Double maxPrice;
+    private final Double minRating;
+
+    public PropertyFilter(String city, String state, String location, String type,
+                          Double minPrice, Double maxPrice, Double minRating) {
+        this.city = blankToNull(city);
+        this.state = blankToNull(state);
+        this.location = location == null || location.isBlank() ? null : location.trim().toLowerCase(Locale.ROOT);
+        this.type = blankToNull(type);
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.minRating = minRating;
+    }
+
+    public String getCity() { return city; }
+    public String getState() { return state; }
+    /** Lowercased location substring, or null. */
+    public String getLocation() { return location; }
+    public String getType() { return type; }
+    public Double getMinPrice() { return minPrice; }
+    public Double getMaxPrice() { return maxPrice; }
+    public Double getMinRating() { return minRating; }
+
+    public Specification<Property> toSpecification() {
+        return Specification.where(cityEquals(city))
+            .and(stateEquals(state))
+            .and(locationContains(location))
+            .and(typeEquals(type))
+            .and(priceBetween(minPrice, maxPrice))
+            .and(ratingAtLeast(minRating));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
@@ -0,0 +1,985 @@
+package com.rentalhaven.repository;
+
+import com.rentalhaven.dto.PropertyStamp;
+import com.rentalhaven.model.Property;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * In-process faceted index over the property catalogue. Each property gets a
+ * dense int ordinal; facet values (city, state, type) map to {@link BitSet}
+ * posting lists and the numeric fields live in primitive columns, so a filter
+ * is a handful of bitset intersections with no per-row allocation. Live
+ * ordinals are also kept presorted by price, rating and id, so a page is read
+ * by walking the sort order from the cursor and stopping once it is full;
+ * only a filter too selective for that falls back to a bounded heap over its
+ * matches. Total and facet counts need every match, so they are computed for
+ * the first page (no cursor) only.
+ *
+ * Built from the database once the application is ready and kept current by
+ * {@link #upsert} and {@link #upsertAll}; until the first build finishes {@link #isReady()} is false
+ * and callers should go to the database instead. A rebuild loads a fresh
+ * index without holding the lock, so queries keep being served from the old
+ * one, and swaps it in under a brief write lock.
+ *
+ * It also carries each property's version and update time, and a catalogue
+ * version that changes on every write, so conditional GETs can be answered
+ * without touching the database.
+ *
+ * Title, description, city and type are also indexed as text: each term maps
+ * to a posting list of (ordinal, weighted term frequency), and
+ * {@link #searchText} ranks matches with BM25. Postings are maintained by the
+ * same {@link #upsert} calls as everything else.
+ */
+@Component
+public class PropertyIndex {
+    private static final int LOAD_BATCH = 1000;
+    /** Lower edges of the price buckets reported as the "price" facet. */
+    private static final double[] PRICE_BUCKETS = {0, 10000, 20000, 30000, 50000, 100000};
+    /** BM25 term-frequency saturation and length normalisation. */
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    /** A title term counts as this many occurrences in the body. */
+    private static final int TITLE_WEIGHT = 3;
+    private static final int[] NO_TERMS = new int[0];
+    /** Score buffers kept for reuse; more concurrent text queries than this allocate. */
+    private static final int POOLED_SCORE_BUFFERS = 8;
+    /** Presorted orders, indexes into {@link #sorted}. */
+    private static final int BY_PRICE = 0, BY_RATING = 1, BY_ID = 2;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Serialises rebuilds without blocking readers. */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    /** Writes made while a rebuild is loading, replayed onto the fresh index; guarded by {@link #lock}. */
+    private List<Consumer<PropertyIndex>> pendingWrites;
+    private volatile boolean ready;
+    /** Distinguishes catalogue versions of this instance from any other's. */
+    private final String instanceId = Long.toString(System.nanoTime() ^ new Random().nextLong(), 36);
+    private volatile long catalogueVersion;
+    private volatile long catalogueModified = System.currentTimeMillis();
+    /**
+     * Per-query score accumulators, borrowed and returned by {@link #searchText}.
+     * A shared pool rather than a ThreadLocal: request threads may be virtual,
+     * and a fresh virtual thread per request would never reuse one. Each holds
+     * a dense float per ordinal (400 KB per 100k listings, so 3.2 MB for a
+     * full pool) plus a hit list sized to the largest query seen; see
+     * {@link #footprint()}.
+     */
+    private final ArrayBlockingQueue<ScoreBuffer> scoreBuffers = new ArrayBlockingQueue<>(POOLED_SCORE_BUFFERS);
+
+    private int size;
+    private long[] ids;
+    private double[] prices;
+    private double[] ratings;
+    private long[] versions;
+    private long[] updatedMillis;
+    private int[] cityCodes;
+    private int[] stateCodes;
+    private int[] typeCodes;
+    private Map<Long, Integer> ordinals;
+    private BitSet live;
+    private Facet cities;
+    private Facet states;
+    private Facet types;
+    /**
+     * Live ordinals ascending by (key, id), one array per sort key: price,
+     * rating and id. The price order also serves price range filters.
+     */
+    private int[][] sorted;
+    private int sortedSize;
+    /** While true, new ordinals are left out of {@link #sorted} until {@link #sortPending}. */
+    private boolean deferSort;
+    private int[] unsorted;
+    private int unsortedSize;
+    private Map<String, Integer> termCodes;
+    private List<Postings> termPostings;
+    /** Term codes of each ordinal's text, so a re-index can take them back out. */
+    private int[][] ordTerms;
+    private int[] docLengths;
+    private long totalDocLength;
+
+    public PropertyIndex() {
+        reset();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Opaque tag that changes whenever any indexed property changes. */
+    public String catalogueTag() {
+        return instanceId + "-" + catalogueVersion;
+    }
+
+    public long catalogueModified() {
+        return catalogueModified;
+    }
+
+    /** Version and update time of one property, or null if it is not indexed. */
+    public PropertyStamp stampOf(Long id) {
+        lock.readLock().lock();
+        try {
+            Integer ord = ordinals.get(id);
+            return ord == null ? null : new PropertyStamp(versions[ord], Instant.ofEpochMilli(updatedMillis[ord]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pendingWrites = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            PropertyIndex fresh = new PropertyIndex();
+            try {
+                long lastId = 0;
+                List<Property> batch;
+                fresh.deferSort = true;
+                do {
+                    batch = propertyRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(LOAD_BATCH));
+                    for (Property p : batch) {
+                        fresh.put(p);
+                        lastId = p.getId();
+                    }
+                } while (batch.size() == LOAD_BATCH);
+                fresh.sortPending();
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    pendingWrites = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                // Upserts that raced the scan may be missing from it
+                for (Consumer<PropertyIndex> write : pendingWrites) write.accept(fresh);
+                pendingWrites = null;
+                adopt(fresh);
+                changed();
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /** Adds a saved property, or re-indexes it if it is already present. */
+    public void upsert(Property property) {
+        if (property.getId() == null) return;
+        lock.writeLock().lock();
+        try {
+            put(property);
+            if (pendingWrites != null) pendingWrites.add(index -> index.put(property));
+            changed();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a batch of saved properties. New ones are merged into the sort
+     * orders in one pass instead of shifting the arrays once per property,
+     * so bulk loads can index as they go.
+     */
+    public void upsertAll(Collection<Property> properties) {
+        List<Property> batch = properties.stream().filter(p -> p.getId() != null).toList();
+        if (batch.isEmpty()) return;
+        lock.writeLock().lock();
+        try {
+            putAll(batch);
+            if (pendingWrites != null) pendingWrites.add(index -> index.putAll(batch));
+            changed();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a filtered, sorted, seek-paginated query. Returns the ids of the
+     * page in order; the caller loads the rows by primary key. Total and facet
+     * counts are only filled in when there is no cursor.
+     */
+    public Result search(PropertyFilter filter, PropertySort sort, PropertyCursor cursor, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = filtered(filter);
+            if (matches == null) return Result.empty();
+            double minRating = filter.getMinRating() != null ? filter.getMinRating() : Double.NEGATIVE_INFINITY;
+
+            int total = -1;
+            Map<String, Map<String, Integer>> facets = null;
+            if (cursor == null) {
+                int[] cityCounts = new int[cities.values.size()];
+                int[] stateCounts = new int[states.values.size()];
+                int[] typeCounts = new int[types.values.size()];
+                int[] priceCounts = new int[PRICE_BUCKETS.length];
+                total = 0;
+                for (int ord = matches.nextSetBit(0); ord >= 0; ord = matches.nextSetBit(ord + 1)) {
+                    if (ratings[ord] < minRating) continue;
+                    total++;
+                    cityCounts[cityCodes[ord]]++;
+                    stateCounts[stateCodes[ord]]++;
+                    typeCounts[typeCodes[ord]]++;
+                    priceCounts[priceBucket(prices[ord])]++;
+                }
+                facets = new LinkedHashMap<>();
+                facets.put("city", cities.counts(cityCounts));
+                facets.put("state", states.counts(stateCounts));
+                facets.put("type", types.counts(typeCounts));
+                facets.put("price", priceCounts(priceCounts));
+            }
+
+            // Walking the order visits about limit * live / matches ordinals; a heap visits every match
+            int matching = matches == live ? sortedSize : matches.cardinality();
+            int[] page = (long) (limit + 1) * sortedSize <= (long) matching * matching
+                ? walk(matches, minRating, sort, cursor, limit + 1)
+                : heap(matches, minRating, sort, cursor, limit + 1);
+            boolean hasMore = page.length > limit;
+            int n = hasMore ? limit : page.length;
+            long[] pageIds = new long[n];
+            for (int i = 0; i < n; i++) pageIds[i] = ids[page[i]];
+            PropertyCursor next = hasMore ? new PropertyCursor(key(sort, page[n - 1]), ids[page[n - 1]]) : null;
+            return new Result(pageIds, next, total, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The first {@code k} matches after the cursor, read off the presorted order. */
+    private int[] walk(BitSet matches, double minRating, PropertySort sort, PropertyCursor cursor, int k) {
+        int o = orderOf(sort);
+        int[] order = sorted[o];
+        boolean asc = sort.getDirection() == Sort.Direction.ASC;
+        int pos;
+        if (cursor == null) {
+            pos = asc ? 0 : sortedSize - 1;
+        } else {
+            pos = asc ? upperBound(o, cursor.getKey(), cursor.getId()) : lowerBound(o, cursor.getKey(), cursor.getId()) - 1;
+        }
+        int step = asc ? 1 : -1;
+        int[] page = new int[k];
+        int n = 0;
+        for (; n < k && pos >= 0 && pos < sortedSize; pos += step) {
+            int ord = order[pos];
+            if (matches.get(ord) && ratings[ord] >= minRating) page[n++] = ord;
+        }
+        return n == k ? page : Arrays.copyOf(page, n);
+    }
+
+    /** The first {@code k} matches after the cursor, by a bounded heap over every match. */
+    private int[] heap(BitSet matches, double minRating, PropertySort sort, PropertyCursor cursor, int k) {
+        TopK top = new TopK((a, b) -> compare(sort, a, b), k);
+        for (int ord = matches.nextSetBit(0); ord >= 0; ord = matches.nextSetBit(ord + 1)) {
+            if (ratings[ord] >= minRating && (cursor == null || isAfter(sort, ord, cursor))) top.offer(ord);
+        }
+        return top.sorted();
+    }
+
+    /**
+     * Ranked full-text search with the same filters as {@link #search}, scored
+     * by BM25 and paged by a (score, id) cursor. Any query term may match; a
+     * property matching more of them, or rarer ones, ranks higher. Only
+     * ordinals that appear in a query term's postings are scored, and the page
+     * comes from a bounded heap, never a sort of every match.
+     */
+    public Result searchText(String query, PropertyFilter filter, PropertyCursor cursor, int limit) {
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.terms(query));
+        lock.readLock().lock();
+        try {
+            BitSet allowed = filtered(filter);
+            if (allowed == null || ordinals.isEmpty()) return Result.empty();
+            double minRating = filter.getMinRating() != null ? filter.getMinRating() : Double.NEGATIVE_INFINITY;
+
+            int docs = ordinals.size();
+            double avgLength = (double) totalDocLength / docs;
+            ScoreBuffer buffer = scoreBuffers.poll();
+            if (buffer == null || buffer.scores.length < size) buffer = new ScoreBuffer(Math.max(size, 1024));
+            try {
+                float[] scores = buffer.scores;
+                for (String term : terms) {
+                    Integer code = termCodes.get(term);
+                    if (code == null) continue;
+                    Postings postings = termPostings.get(code);
+                    if (postings.size == 0) continue;
+                    double idf = Math.log(1 + (docs - postings.size + 0.5) / (postings.size + 0.5));
+                    for (int i = 0; i < postings.size; i++) {
+                        int ord = postings.ords[i];
+                        int tf = postings.freqs[i];
+                        double norm = K1 * (1 - B + B * docLengths[ord] / avgLength);
+                        buffer.add(ord, (float) (idf * tf * (K1 + 1) / (tf + norm)));
+                    }
+                }
+
+                TopK top = new TopK((a, b) -> compareScore(scores, a, b), limit + 1);
+                int total = 0;
+                for (int i = 0; i < buffer.hits; i++) {
+                    int ord = buffer.hitOrds[i];
+                    if (!allowed.get(ord) || ratings[ord] < minRating) continue;
+                    total++;
+                    if (cursor == null || isAfterScore(scores, ord, cursor)) top.offer(ord);
+                }
+
+                int[] page = top.sorted();
+                boolean hasMore = page.length > limit;
+                int n = hasMore ? limit : page.length;
+                long[] pageIds = new long[n];
+                for (int i = 0; i < n; i++) pageIds[i] = ids[page[i]];
+                PropertyCursor next = hasMore ? new PropertyCursor(scores[page[n - 1]], ids[page[n - 1]]) : null;
+                return new Result(pageIds, next, total, Map.of());
+            } finally {
+                buffer.clear();
+                scoreBuffers.offer(buffer);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compares the index against the database row by row. Reports properties
+     * missing from either side and rows whose indexed fields have drifted.
+     */
+    public Map<String, Object> verify() {
+        List<Long> missing = new ArrayList<>();
+        List<Long> stale = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        long lastId = 0;
+        List<Property> batch;
+        do {
+            batch = propertyRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(LOAD_BATCH));
+            lock.readLock().lock();
+            try {
+                for (Property p : batch) {
+                    lastId = p.getId();
+                    seen.add(p.getId());
+                    Integer ord = ordinals.get(p.getId());
+                    if (ord == null) {
+                        missing.add(p.getId());
+                    } else if (!matches(ord, p)) {
+                        stale.add(p.getId());
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        } while (batch.size() == LOAD_BATCH);
+
+        List<Long> orphaned = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : ordinals.keySet()) {
+                if (!seen.contains(id)) orphaned.add(id);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("consistent", missing.isEmpty() && stale.isEmpty() && orphaned.isEmpty());
+        report.put("databaseRows", seen.size());
+        report.put("missingFromIndex", missing);
+        report.put("staleInIndex", stale);
+        report.put("orphanedInIndex", orphaned);
+        return report;
+    }
+
+    /** Approximate heap usage of the index structures, in bytes. */
+    public Map<String, Object> footprint() {
+        lock.readLock().lock();
+        try {
+            long columns = (long) ids.length * (8 + 8 + 8 + 8 + 8 + 4 + 4 + 4);
+            long sortedOrders = (long) sorted[0].length * 4 * sorted.length;
+            long postings = cities.postingBytes() + states.postingBytes() + types.postingBytes() + live.size() / 8;
+            // HashMap entry + boxed Long and Integer, roughly 64 bytes per live property
+            long idMap = (long) ordinals.size() * 64;
+            long text = (long) docLengths.length * 4;
+            for (Postings p : termPostings) text += (long) p.ords.length * 8;
+            for (int ord = 0; ord < size; ord++) text += (long) ordTerms[ord].length * 4;
+            // Dictionary entry + term string, roughly 80 bytes per distinct term
+            text += (long) termCodes.size() * 80;
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("ready", ready);
+            report.put("properties", ordinals.size());
+            report.put("ordinals", size);
+            report.put("distinctCities", cities.values.size());
+            report.put("distinctStates", states.values.size());
+            report.put("distinctTypes", types.values.size());
+            report.put("distinctTerms", termCodes.size());
+            report.put("columnBytes", columns);
+            report.put("sortedOrderBytes", sortedOrders);
+            report.put("postingListBytes", postings);
+            report.put("idMapBytes", idMap);
+            report.put("textIndexBytes", text);
+            report.put("totalBytes", columns + sortedOrders + postings + idMap + text);
+            // Outside the index proper: the pooled text-search buffers that are idle right now
+            long scoreBufferBytes = 0;
+            for (ScoreBuffer buffer : scoreBuffers) scoreBufferBytes += buffer.bytes();
+            report.put("pooledScoreBuffers", scoreBuffers.size());
+            report.put("scoreBufferBytes", scoreBufferBytes);
+            return report;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void reset() {
+        size = 0;
+        ids = new long[1024];
+        prices = new double[1024];
+        ratings = new double[1024];
+        versions = new long[1024];
+        updatedMillis = new long[1024];
+        cityCodes = new int[1024];
+        stateCodes = new int[1024];
+        typeCodes = new int[1024];
+        ordinals = new HashMap<>();
+        live = new BitSet();
+        cities = new Facet();
+        states = new Facet();
+        types = new Facet();
+        sorted = new int[3][1024];
+        sortedSize = 0;
+        unsorted = new int[0];
+        unsortedSize = 0;
+        termCodes = new HashMap<>();
+        termPostings = new ArrayList<>();
+        ordTerms = new int[1024][];
+        docLengths = new int[1024];
+        totalDocLength = 0;
+    }
+
+    /** Takes over a freshly built index's structures; keep in step with {@link #reset()}. */
+    private void adopt(PropertyIndex built) {
+        size = built.size;
+        ids = built.ids;
+        prices = built.prices;
+        ratings = built.ratings;
+        versions = built.versions;
+        updatedMillis = built.updatedMillis;
+        cityCodes = built.cityCodes;
+        stateCodes = built.stateCodes;
+        typeCodes = built.typeCodes;
+        ordinals = built.ordinals;
+        live = built.live;
+        cities = built.cities;
+        states = built.states;
+        types = built.types;
+        sorted = built.sorted;
+        sortedSize = built.sortedSize;
+        termCodes = built.termCodes;
+        termPostings = built.termPostings;
+        ordTerms = built.ordTerms;
+        docLengths = built.docLengths;
+        totalDocLength = built.totalDocLength;
+    }
+
+    private void put(Property p) {
+        Integer existing = ordinals.get(p.getId());
+        int ord;
+        if (existing != null) {
+            ord = existing;
+            unlink(ord);
+        } else {
+            ord = size++;
+            ensureCapacity(size);
+            ordinals.put(p.getId(), ord);
+        }
+        ids[ord] = p.getId();
+        prices[ord] = p.getPricePerNight();
+        ratings[ord] = p.getRating();
+        versions[ord] = p.getVersion() != null ? p.getVersion() : 0;
+        updatedMillis[ord] = p.getUpdatedAt() != null ? p.getUpdatedAt().toEpochMilli() : System.currentTimeMillis();
+        cityCodes[ord] = cities.add(p.getCity(), ord);
+        stateCodes[ord] = states.add(p.getState(), ord);
+        typeCodes[ord] = types.add(p.getType(), ord);
+        live.set(ord);
+        if (deferSort) {
+            if (unsortedSize == unsorted.length) unsorted = Arrays.copyOf(unsorted, Math.max(1024, unsortedSize * 2));
+            unsorted[unsortedSize++] = ord;
+        } else {
+            insertSorted(ord);
+        }
+        indexText(ord, p);
+    }
+
+    private void putAll(List<Property> batch) {
+        // Ids already indexed move one at a time; deferred ordinals must all be new and distinct
+        Map<Long, Property> added = new LinkedHashMap<>();
+        for (Property p : batch) {
+            if (ordinals.containsKey(p.getId())) put(p);
+            else added.put(p.getId(), p);
+        }
+        if (added.isEmpty()) return;
+        deferSort = true;
+        added.values().forEach(this::put);
+        sortPending();
+    }
+
+    /** Drops an ordinal from every posting list; its column slots become garbage. */
+    private void unlink(int ord) {
+        live.clear(ord);
+        cities.postings.get(cityCodes[ord]).clear(ord);
+        states.postings.get(stateCodes[ord]).clear(ord);
+        types.postings.get(typeCodes[ord]).clear(ord);
+        for (int o = 0; o < sorted.length; o++) {
+            int pos = lowerBound(o, key(o, ord), ids[ord]);
+            System.arraycopy(sorted[o], pos + 1, sorted[o], pos, sortedSize - pos - 1);
+        }
+        sortedSize--;
+        for (int code : ordTerms[ord]) termPostings.get(code).remove(ord);
+        totalDocLength -= docLengths[ord];
+        ordTerms[ord] = NO_TERMS;
+        docLengths[ord] = 0;
+    }
+
+    private void indexText(int ord, Property p) {
+        Map<String, Integer> freqs = new HashMap<>();
+        for (String term : TextAnalyzer.terms(p.getTitle())) freqs.merge(term, TITLE_WEIGHT, Integer::sum);
+        for (String term : TextAnalyzer.terms(p.getDescription())) freqs.merge(term, 1, Integer::sum);
+        for (String term : TextAnalyzer.terms(p.getCity())) freqs.merge(term, 1, Integer::sum);
+        for (String term : TextAnalyzer.terms(p.getType())) freqs.merge(term, 1, Integer::sum);
+        int[] codes = new int[freqs.size()];
+        int i = 0, length = 0;
+        for (Map.Entry<String, Integer> e : freqs.entrySet()) {
+            Integer code = termCodes.get(e.getKey());
+            if (code == null) {
+                code = termPostings.size();
+                termCodes.put(e.getKey(), code);
+                termPostings.add(new Postings());
+            }
+            termPostings.get(code).add(ord, e.getValue());
+            codes[i++] = code;
+            length += e.getValue();
+        }
+        ordTerms[ord] = codes;
+        docLengths[ord] = length;
+        totalDocLength += length;
+    }
+
+    private void insertSorted(int ord) {
+        if (sortedSize == sorted[0].length) {
+            for (int o = 0; o < sorted.length; o++) sorted[o] = Arrays.copyOf(sorted[o], sortedSize * 2);
+        }
+        for (int o = 0; o < sorted.length; o++) {
+            int pos = lowerBound(o, key(o, ord), ids[ord]);
+            System.arraycopy(sorted[o], pos, sorted[o], pos + 1, sortedSize - pos);
+            sorted[o][pos] = ord;
+        }
+        sortedSize++;
+    }
+
+    /**
+     * Sorts the ordinals added while {@link #deferSort} was set and merges
+     * them into each order in one pass, rather than shifting the arrays once
+     * per property.
+     */
+    private void sortPending() {
+        Integer[] pending = new Integer[unsortedSize];
+        for (int i = 0; i < unsortedSize; i++) pending[i] = unsorted[i];
+        int merged = sortedSize + unsortedSize;
+        for (int o = 0; o < sorted.length; o++) {
+            int order = o;
+            Arrays.sort(pending, (a, b) -> compareKey(order, a, b));
+            int[] out = new int[Math.max(1024, merged)];
+            int i = 0, j = 0, n = 0;
+            while (i < sortedSize || j < pending.length) {
+                if (j == pending.length || (i < sortedSize && compareKey(o, sorted[o][i], pending[j]) < 0)) {
+                    out[n++] = sorted[o][i++];
+                } else {
+                    out[n++] = pending[j++];
+                }
+            }
+            sorted[o] = out;
+        }
+        sortedSize = merged;
+        unsorted = new int[0];
+        unsortedSize = 0;
+        deferSort = false;
+    }
+
+    /** First position in order {@code o} whose (key, id) is not below the given pair. */
+    private int lowerBound(int o, double key, long id) {
+        int[] order = sorted[o];
+        int lo = 0, hi = sortedSize;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int m = order[mid];
+            int c = Double.compare(key(o, m), key);
+            if (c < 0 || (c == 0 && ids[m] < id)) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** First position in order {@code o} whose (key, id) is above the given pair. */
+    private int upperBound(int o, double key, long id) {
+        int[] order = sorted[o];
+        int lo = 0, hi = sortedSize;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int m = order[mid];
+            int c = Double.compare(key(o, m), key);
+            if (c < 0 || (c == 0 && ids[m] <= id)) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private double key(int o, int ord) {
+        return switch (o) {
+            case BY_PRICE -> prices[ord];
+            case BY_RATING -> ratings[ord];
+            default -> ids[ord];
+        };
+    }
+
+    private int compareKey(int o, int a, int b) {
+        int c = Double.compare(key(o, a), key(o, b));
+        return c != 0 ? c : Long.compare(ids[a], ids[b]);
+    }
+
+    private static int orderOf(PropertySort sort) {
+        return switch (sort) {
+            case RATING -> BY_RATING;
+            case PRICE_LOW, PRICE_HIGH -> BY_PRICE;
+            case NEWEST -> BY_ID;
+        };
+    }
+
+    /**
+     * Live ordinals passing the facet, location and price filters, or null if
+     * a facet value is unknown. With no such filter this is {@link #live}
+     * itself, so callers must not modify the result.
+     */
+    private BitSet filtered(PropertyFilter filter) {
+        if (filter.getCity() == null && filter.getState() == null && filter.getType() == null
+            && filter.getLocation() == null && filter.getMinPrice() == null && filter.getMaxPrice() == null) {
+            return live;
+        }
+        BitSet matches = (BitSet) live.clone();
+        if (!intersect(matches, cities, filter.getCity())
+            || !intersect(matches, states, filter.getState())
+            || !intersect(matches, types, filter.getType())) {
+            return null;
+        }
+        if (filter.getLocation() != null) {
+            // Few distinct cities and states, so scanning the dictionaries is cheap
+            BitSet located = new BitSet(size);
+            cities.unionContaining(filter.getLocation(), located);
+            states.unionContaining(filter.getLocation(), located);
+            matches.and(located);
+        }
+        if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+            matches.and(priceRange(filter.getMinPrice(), filter.getMaxPrice()));
+        }
+        return matches;
+    }
+
+    private BitSet priceRange(Double min, Double max) {
+        int from = min == null ? 0 : lowerBound(BY_PRICE, min, Long.MIN_VALUE);
+        int to = max == null ? sortedSize : upperBound(BY_PRICE, max, Long.MAX_VALUE);
+        BitSet range = new BitSet(size);
+        for (int i = from; i < to; i++) range.set(sorted[BY_PRICE][i]);
+        return range;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) return;
+        int cap = Math.max(needed, ids.length * 2);
+        ids = Arrays.copyOf(ids, cap);
+        prices = Arrays.copyOf(prices, cap);
+        ratings = Arrays.copyOf(ratings, cap);
+        versions = Arrays.copyOf(versions, cap);
+        updatedMillis = Arrays.copyOf(updatedMillis, cap);
+        cityCodes = Arrays.copyOf(cityCodes, cap);
+        stateCodes = Arrays.copyOf(stateCodes, cap);
+        typeCodes = Arrays.copyOf(typeCodes, cap);
+        ordTerms = Arrays.copyOf(ordTerms, cap);
+        docLengths = Arrays.copyOf(docLengths, cap);
+    }
+
+    // Called with the write lock held
+    private void changed() {
+        catalogueVersion++;
+        catalogueModified = System.currentTimeMillis();
+    }
+
+    private boolean matches(int ord, Property p) {
+        return prices[ord] == p.getPricePerNight()
+            && versions[ord] == (p.getVersion() != null ? p.getVersion() : 0)
+            && ratings[ord] == p.getRating()
+            && cities.values.get(cityCodes[ord]).equals(p.getCity())
+            && states.values.get(stateCodes[ord]).equals(p.getState())
+            && types.values.get(typeCodes[ord]).equals(p.getType());
+    }
+
+    private static boolean intersect(BitSet matches, Facet facet, String value) {
+        if (value == null) return true;
+        Integer code = facet.codes.get(value);
+        if (code == null) return false;
+        matches.and(facet.postings.get(code));
+        return true;
+    }
+
+    private static int priceBucket(double price) {
+        int b = PRICE_BUCKETS.length - 1;
+        while (b > 0 && price < PRICE_BUCKETS[b]) b--;
+        return b;
+    }
+
+    private static Map<String, Integer> priceCounts(int[] counts) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int b = 0; b < PRICE_BUCKETS.length; b++) {
+            String label = b + 1 < PRICE_BUCKETS.length
+                ? (long) PRICE_BUCKETS[b] + "-" + (long) PRICE_BUCKETS[b + 1]
+                : (long) PRICE_BUCKETS[b] + "+";
+            result.put(label, counts[b]);
+        }
+        return result;
+    }
+
+    private double key(PropertySort sort, int ord) {
+        return switch (sort) {
+            case RATING -> ratings[ord];
+            case PRICE_LOW, PRICE_HIGH -> prices[ord];
+            case NEWEST -> ids[ord];
+        };
+    }
+
+    /** Orders two ordinals as the listing would: negative if {@code a} comes first. */
+    private int compare(PropertySort sort, int a, int b) {
+        int c = Double.compare(key(sort, a), key(sort, b));
+        if (c == 0) c = Long.compare(ids[a], ids[b]);
+        return sort.getDirection() == Sort.Direction.ASC ? c : -c;
+    }
+
+    private boolean isAfter(PropertySort sort, int ord, PropertyCursor cursor) {
+        int c = Double.compare(key(sort, ord), cursor.getKey());
+        if (c == 0) c = Long.compare(ids[ord], cursor.getId());
+        return sort.getDirection() == Sort.Direction.ASC ? c > 0 : c < 0;
+    }
+
+    /** Best score first, then the higher id, matching {@link #isAfterScore}. */
+    private int compareScore(float[] scores, int a, int b) {
+        int c = Float.compare(scores[b], scores[a]);
+        return c != 0 ? c : Long.compare(ids[b], ids[a]);
+    }
+
+    private boolean isAfterScore(float[] scores, int ord, PropertyCursor cursor) {
+        int c = Double.compare(scores[ord], cursor.getKey());
+        if (c == 0) c = Long.compare(ids[ord], cursor.getId());
+        return c < 0;
+    }
+
+    /** Dictionary-encoded facet: value -> code -> posting list. */
+    private static final class Facet {
+        final Map<String, Integer> codes = new HashMap<>();
+        final List<String> values = new ArrayList<>();
+        final List<BitSet> postings = new ArrayList<>();
+
+        int add(String value, int ord) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+                postings.add(new BitSet());
+            }
+            postings.get(code).set(ord);
+            return code;
+        }
+
+        /** ORs in the postings of every value containing {@code needle}, ignoring case. */
+        void unionContaining(String needle, BitSet into) {
+            for (int code = 0; code < values.size(); code++) {
+                String value = values.get(code);
+                if (value != null && value.toLowerCase(Locale.ROOT).contains(needle)) into.or(postings.get(code));
+            }
+        }
+
+        Map<String, Integer> counts(int[] counts) {
+            Map<String, Integer> result = new TreeMap<>();
+            for (int code = 0; code < counts.length; code++) {
+                if (counts[code] > 0) result.put(values.get(code), counts[code]);
+            }
+            return result;
+        }
+
+        long postingBytes() {
+            long bytes = 0;
+            for (BitSet posting : postings) bytes += posting.size() / 8;
+            return bytes;
+        }
+    }
+
+    /** Ordinals of one term's matches with their weighted frequencies, unordered. */
+    private static final class Postings {
+        int[] ords = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int ord, int freq) {
+            if (size == ords.length) {
+                ords = Arrays.copyOf(ords, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            ords[size] = ord;
+            freqs[size] = freq;
+            size++;
+        }
+
+        /** Swaps the last entry into the hole; order carries no meaning here. */
+        void remove(int ord) {
+            for (int i = 0; i < size; i++) {
+                if (ords[i] == ord) {
+                    size--;
+                    ords[i] = ords[size];
+                    freqs[i] = freqs[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Dense per-ordinal scores plus the list of ordinals scored so far, so a
+     * query touches only its matches and the buffer is zeroed in time
+     * proportional to them rather than to the catalogue. The scores must be
+     * addressable by ordinal; the hit list only grows as far as the postings
+     * a query actually walks.
+     */
+    private static final class ScoreBuffer {
+        final float[] scores;
+        int[] hitOrds = new int[256];
+        int hits;
+
+        ScoreBuffer(int capacity) {
+            scores = new float[capacity];
+        }
+
+        // Every BM25 contribution is positive, so zero means not yet scored
+        void add(int ord, float score) {
+            if (scores[ord] == 0) {
+                if (hits == hitOrds.length) hitOrds = Arrays.copyOf(hitOrds, Math.min(scores.length, hits * 2));
+                hitOrds[hits++] = ord;
+            }
+            scores[ord] += score;
+        }
+
+        long bytes() {
+            return (long) scores.length * 4 + (long) hitOrds.length * 4;
+        }
+
+        void clear() {
+            for (int i = 0; i < hits; i++) scores[hitOrds[i]] = 0;
+            hits = 0;
+        }
+    }
+
+    /** Bounded max-heap keeping the first {@code k} ordinals in the given order. */
+    private static final class TopK {
+        private final IntBinaryOperator order;
+        private final int[] heap;
+        private int count;
+
+        TopK(IntBinaryOperator order, int k) {
+            this.order = order;
+            this.heap = new int[k];
+        }
+
+        void offer(int ord) {
+            if (count < heap.length) {
+                heap[count] = ord;
+                siftUp(count++);
+            } else if (order.applyAsInt(ord, heap[0]) < 0) {
+                heap[0] = ord;
+                siftDown(0);
+            }
+        }
+
+        int[] sorted() {
+            int[] out = new int[count];
+            for (int i = count - 1; i >= 0; i--) {
+                out[i] = heap[0];
+                heap[0] = heap[--count];
+                siftDown(0);
+            }
+            return out;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (order.applyAsInt(heap[i], heap[parent]) <= 0) return;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int l = 2 * i + 1, r = l + 1, worst = i;
+                if (l < count && order.applyAsInt(heap[l], heap[worst]) > 0) worst = l;
+                if (r < count && order.applyAsInt(heap[r], heap[worst]) > 0) worst = r;
+                if (worst == i) return;
+                swap(i, worst);
+                i = worst;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int t = heap[i];
+            heap[i] = heap[j];
+            heap[j] = t;
+        }
+    }
+
+    /** One page of ids; total and facets are -1 and null on pages after the first. */
+    public static final class Result {
+        private final long[] ids;
+        private final PropertyCursor nextCursor;
+        private final int total;
+        private final Map<String, Map<String, Integer>> facets;
+
+        Result(long[] ids, PropertyCursor nextCursor, int total, Map<String, Map<String, Integer>> facets) {
+            this.ids = ids;
+            this.nextCursor = nextCursor;
+            this.total = total;
+            this.facets = facets;
+        }
+
+        static Result empty() {
+            return new Result(new long[0], null, 0, Map.of());
+        }
+
+        public long[] getIds() { return ids; }
+        public PropertyCursor getNextCursor() { return nextCursor; }
+        public int getTotal() { return total; }
+        public Map<String, Map<String, Integer>> getFacets() { return facets; }
+    }
+}
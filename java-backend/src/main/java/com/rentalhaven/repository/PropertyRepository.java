@@ -1,7 +1,43 @@
 package com.rentalhaven.repository;
 
+import com.rentalhaven.dto.PropertyCard;
+import com.rentalhaven.dto.PropertyDetail;
+import com.rentalhaven.dto.PropertyStamp;
 import com.rentalhaven.model.Property;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
  
-public interface PropertyRepository extends JpaRepository<Property, Long> {
-} 
\ No newline at end of file
+public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSpecificationExecutor<Property>, PropertyCardQueries {
+    // Id-ordered batches for full scans (index builds, consistency checks)
+    List<Property> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select new com.rentalhaven.dto.PropertyCard(p.id, p.title, p.pricePerNight, p.city, p.state, p.type, "
+         + "p.images, p.rating, p.reviewCount, o.id, o.name) from Property p left join p.owner o where p.id in :ids")
+    List<PropertyCard> findCardsByIdIn(Collection<Long> ids);
+
+    // Cached read-through; every save below evicts the entry it changes
+    @Cacheable(cacheNames = "propertyDetails", unless = "#result == null")
+    @Query("select new com.rentalhaven.dto.PropertyDetail(p.id, p.title, p.description, p.price, p.pricePerNight, "
+         + "p.city, p.state, p.type, p.images, p.rating, p.reviewCount, o.id, o.name) "
+         + "from Property p left join p.owner o where p.id = :id")
+    Optional<PropertyDetail> findDetailById(Long id);
+
+    @Query("select new com.rentalhaven.dto.PropertyStamp(p.version, p.updatedAt) from Property p where p.id = :id")
+    Optional<PropertyStamp> findStampById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = "propertyDetails", key = "#result.id")
+    <S extends Property> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = "propertyDetails", allEntries = true)
+    <S extends Property> List<S> saveAll(Iterable<S> entities);
+}
@@ -0,0 +1,43 @@
+package com.rentalhaven.repository;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Sort orders supported by the property search. Every order is made total by
+ * breaking ties on id in the same direction, so a (key, id) pair is enough to
+ * seek to the next page.
+ */
+public enum PropertySort {
+    RATING("rating", Sort.Direction.DESC),
+    PRICE_LOW("pricePerNight", Sort.Direction.ASC),
+    PRICE_HIGH("pricePerNight", Sort.Direction.DESC),
+    NEWEST("id", Sort.Direction.DESC);
+
+    private final String key;
+    private final Sort.Direction direction;
+
+    PropertySort(String key, Sort.Direction direction) {
+        this.key = key;
+        this.direction = direction;
+    }
+
+    public String getKey() { return key; }
+    public Sort.Direction getDirection() { return direction; }
+    public boolean isIdOnly() { return "id".equals(key); }
+
+    public Sort toSort() {
+        return isIdOnly() ? Sort.by(direction, "id") : Sort.by(direction, key).and(Sort.by(direction, "id"));
+    }
+
+    /** Accepts the client's sort names ("rating", "price-low", "price-high", "newest"). */
+    public static PropertySort fromParam(String value) {
+        if (value == null || value.isBlank()) return RATING;
+        return switch (value.toLowerCase()) {
+            case "price-low" -> PRICE_LOW;
+            case "price-high" -> PRICE_HIGH;
+            case "newest" -> NEWEST;
+            case "rating" -> RATING;
+            default -> throw new IllegalArgumentException("Unknown sort: " + value);
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package com.rentalhaven.repository;
+
+import com.rentalhaven.model.Property;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Criteria building blocks for {@code GET /api/properties}. A null argument
+ * yields a null specification, which {@link Specification#where} ignores.
+ */
+public final class PropertySpecifications {
+    private PropertySpecifications() {}
+
+    public static Specification<Property> cityEquals(String city) {
+        if (city == null || city.isBlank()) return null;
+        return (root, query, cb) -> cb.equal(root.get("city"), city);
+    }
+
+    public static Specification<Property> stateEquals(String state) {
+        if (state == null || state.isBlank()) return null;
+        return (root, query, cb) -> cb.equal(root.get("state"), state);
+    }
+
+    /** City or state contains {@code location}, which must already be lowercase. */
+    public static Specification<Property> locationContains(String location) {
+        if (location == null || location.isBlank()) return null;
+        String pattern = "%" + location.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.or(
+            cb.like(cb.lower(root.get("city")), pattern, '\\'),
+            cb.like(cb.lower(root.get("state")), pattern, '\\'));
+    }
+
+    public static Specification<Property> typeEquals(String type) {
+        if (type == null || type.isBlank()) return null;
+        return (root, query, cb) -> cb.equal(root.get("type"), type);
+    }
+
+    public static Specification<Property> priceBetween(Double minPrice, Double maxPrice) {
+        if (minPrice == null && maxPrice == null) return null;
+        return (root, query, cb) -> {
+            Path<Double> price = root.get("pricePerNight");
+            if (minPrice == null) return cb.le(price, maxPrice);
+            if (maxPrice == null) return cb.ge(price, minPrice);
+            return cb.between(price, minPrice, maxPrice);
+        };
+    }
+
+    public static Specification<Property> ratingAtLeast(Double minRating) {
+        if (minRating == null) return null;
+        return (root, query, cb) -> cb.ge(root.get("rating"), minRating);
+    }
+
+    /**
+     * Seek predicate: rows strictly after the cursor in the given sort order,
+     * i.e. {@code (key, id) > (cursorKey, cursorId)} for ascending orders.
+     */
+    public static Specification<Property> after(PropertySort sort, PropertyCursor cursor) {
+        if (cursor == null) return null;
+        boolean asc = sort.getDirection() == Sort.Direction.ASC;
+        return (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            if (sort.isIdOnly()) {
+                return asc ? cb.gt(id, cursor.getId()) : cb.lt(id, cursor.getId());
+            }
+            Path<Double> key = root.get(sort.getKey());
+            return cb.or(
+                asc ? cb.gt(key, cursor.getKey()) : cb.lt(key, cursor.getKey()),
+                cb.and(cb.equal(key, cursor.getKey()),
+                       asc ? cb.gt(id, cursor.getId()) : cb.lt(id, cursor.getId()))
+            );
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.rentalhaven.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns listing text and search queries into index terms: lowercased runs of
+ * letters and digits ("2BHK" stays one term), common English words dropped,
+ * and a trailing plural "s" stripped so "flats" finds "flat". Documents and
+ * queries go through the same analysis, so the two always agree.
+ */
+final class TextAnalyzer {
+    private static final int MIN_STEM_LENGTH = 4;
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+        "of", "on", "or", "per", "the", "this", "to", "with");
+
+    private TextAnalyzer() {
+    }
+
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) return terms;
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean word = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                String term = normalize(lower.substring(start, i));
+                if (term != null) terms.add(term);
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static String normalize(String token) {
+        if (STOP_WORDS.contains(token)) return null;
+        if (token.length() >= MIN_STEM_LENGTH && token.endsWith("s") && !token.endsWith("ss")
+                && Character.isLetter(token.charAt(token.length() - 2))) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+}
@@ -1,9 +1,24 @@
 package com.rentalhaven.repository;
 
+import com.rentalhaven.dto.UserSummary;
 import com.rentalhaven.model.User;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
 import java.util.Optional;
  
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Loads the password hash; for credential checks only, never cached
     Optional<User> findByEmail(String email);
-} 
\ No newline at end of file
+
+    // Cached read-through lookup without the password hash
+    @Cacheable(cacheNames = "usersByEmail", unless = "#result == null")
+    @Query("select new com.rentalhaven.dto.UserSummary(u.id, u.email, u.name, u.mobile, u.role) from User u where u.email = :email")
+    Optional<UserSummary> findSummaryByEmail(String email);
+
+    @Override
+    @CacheEvict(cacheNames = "usersByEmail", key = "#result.email")
+    <S extends User> S save(S entity);
+}
@@ -0,0 +1,4 @@
+package com.rentalhaven.security;
+
+/** Identity carried in a session token; the request principal once the token is verified. */
+public record AuthenticatedUser(Long id, String email, String name, String role) {}
@@ -0,0 +1,78 @@
+package com.rentalhaven.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt on its own small pool with a bounded queue, so a login storm can
+ * use at most {@code hash-threads} cores and never holds Tomcat workers while
+ * it waits. When the queue is full the task is rejected immediately with
+ * {@link RejectedExecutionException}; callers answer 503 with Retry-After.
+ */
+@Service
+public class PasswordHashingService {
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final ThreadPoolExecutor executor;
+    private final Timer queueWait;
+    private final Timer encodeTimer;
+    private final Timer verifyTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(MeterRegistry registry,
+                                  @Value("${rentalhaven.auth.hash-threads:0}") int threads,
+                                  @Value("${rentalhaven.auth.hash-queue:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger n = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> {
+                Thread t = new Thread(r, "password-hash-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+        queueWait = Timer.builder("auth.password.queue.wait").description("Time hashing tasks wait for a worker").register(registry);
+        encodeTimer = Timer.builder("auth.password.hash").tag("op", "encode").register(registry);
+        verifyTimer = Timer.builder("auth.password.hash").tag("op", "verify").register(registry);
+        rejected = Counter.builder("auth.password.rejected").description("Hashing tasks shed because the queue was full").register(registry);
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size()).register(registry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount).register(registry);
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(verifyTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> work) {
+        long enqueued = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWait.record(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+                return timer.record(work);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
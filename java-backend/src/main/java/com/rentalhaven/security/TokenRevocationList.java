@@ -0,0 +1,37 @@
+package com.rentalhaven.security;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token ids revoked before their expiry (logout). Entries only need to live
+ * until the token would have expired anyway, so the list stays small and a
+ * check is a single hash lookup. Held per instance.
+ */
+@Component
+public class TokenRevocationList {
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    public void revoke(String tokenId, long expiresAtEpochSecond) {
+        revoked.put(tokenId, expiresAtEpochSecond);
+        if (revoked.size() > PURGE_THRESHOLD) purgeExpired();
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return revoked.containsKey(tokenId);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private void purgeExpired() {
+        long now = Instant.now().getEpochSecond();
+        revoked.values().removeIf(expiresAt -> expiresAt < now);
+    }
+}
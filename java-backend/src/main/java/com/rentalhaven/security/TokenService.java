@@ -0,0 +1,131 @@
+package com.rentalhaven.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rentalhaven.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Issues and verifies HS256-signed JWTs carrying the user's id, email, name
+ * and role. Verification is an HMAC, a small JSON parse and a revocation
+ * lookup; it never touches the database.
+ *
+ * The signing key comes from {@code rentalhaven.auth.token-secret} and must be
+ * at least 32 bytes. If it is not set, a random key is generated at startup:
+ * tokens then stop working on restart and are not shared between instances,
+ * but nobody can forge them with a well-known default.
+ */
+@Service
+public class TokenService {
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final String HEADER = encode("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Mac prototype;
+    private final Duration ttl;
+
+    public TokenService(@Value("${rentalhaven.auth.token-secret:}") String secret,
+                        @Value("${rentalhaven.auth.token-ttl:12h}") Duration ttl) {
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            key = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(key);
+            log.warn("rentalhaven.auth.token-secret (AUTH_TOKEN_SECRET) is not set; using a random key, "
+                + "so sessions end on restart and are not valid on other instances");
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+            if (key.length < MIN_SECRET_BYTES) {
+                throw new IllegalStateException("rentalhaven.auth.token-secret must be at least "
+                    + MIN_SECRET_BYTES + " bytes, got " + key.length);
+            }
+        }
+        try {
+            prototype = Mac.getInstance("HmacSHA256");
+            prototype.init(new SecretKeySpec(key, "HmacSHA256"));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+        this.ttl = ttl;
+    }
+
+    public String issue(User user) {
+        long now = Instant.now().getEpochSecond();
+        ObjectNode claims = objectMapper.createObjectNode();
+        claims.put("sub", String.valueOf(user.getId()));
+        claims.put("email", user.getEmail());
+        claims.put("name", user.getName());
+        claims.put("role", user.getRole());
+        claims.put("iat", now);
+        claims.put("exp", now + ttl.getSeconds());
+        claims.put("jti", UUID.randomUUID().toString());
+        String signingInput = HEADER + "." + encode(claims.toString().getBytes(StandardCharsets.UTF_8));
+        return signingInput + "." + encode(sign(signingInput));
+    }
+
+    /** Returns the token's user, or null if it is malformed, forged, expired or revoked. */
+    public AuthenticatedUser verify(String token) {
+        JsonNode claims = verifiedClaims(token);
+        if (claims == null || revocationList.isRevoked(claims.path("jti").asText())) return null;
+        return new AuthenticatedUser(claims.path("sub").asLong(), claims.path("email").asText(),
+            claims.path("name").asText(null), claims.path("role").asText(null));
+    }
+
+    /** Revokes a valid token until it expires; returns false if it was not valid. */
+    public boolean revoke(String token) {
+        JsonNode claims = verifiedClaims(token);
+        if (claims == null) return false;
+        revocationList.revoke(claims.path("jti").asText(), claims.path("exp").asLong());
+        return true;
+    }
+
+    private JsonNode verifiedClaims(String token) {
+        if (token == null) return null;
+        int first = token.indexOf('.');
+        int last = token.lastIndexOf('.');
+        if (first < 0 || first == last) return null;
+        try {
+            byte[] expected = sign(token.substring(0, last));
+            byte[] actual = Base64.getUrlDecoder().decode(token.substring(last + 1));
+            if (!MessageDigest.isEqual(expected, actual)) return null;
+            JsonNode claims = objectMapper.readTree(Base64.getUrlDecoder().decode(token.substring(first + 1, last)));
+            if (claims.path("exp").asLong() < Instant.now().getEpochSecond()) return null;
+            return claims;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String input) {
+        try {
+            // Mac is not thread-safe; cloning the initialised prototype is cheaper than re-keying
+            Mac mac = (Mac) prototype.clone();
+            return mac.doFinal(input.getBytes(StandardCharsets.UTF_8));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,174 @@
+package com.rentalhaven.service;
+
+import com.rentalhaven.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory view of which nights each property is booked. Every property has
+ * a calendar of disjoint [checkIn, checkOut) stays keyed by start day, so an
+ * availability check is a floor/ceiling lookup in a sorted map.
+ *
+ * {@link #tryReserve} checks and claims a range atomically per property; the
+ * caller persists the booking afterwards and calls {@link #release} if that
+ * fails. Calendars are guarded by a fixed set of read/write locks striped on
+ * property id, so properties on different stripes never contend and the
+ * critical sections never block on I/O. The bookings_no_overlap exclusion
+ * constraint in the database backs this up across instances. Loaded from the
+ * database before the web server starts accepting requests.
+ *
+ * Stays that have ended are dropped from a calendar whenever it is claimed
+ * in, and a calendar left empty by a release is removed, so memory follows
+ * the live bookings rather than every property ever booked.
+ */
+@Component
+public class AvailabilityEngine {
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final Map<Long, Calendar> calendars = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock[] stripes = new ReentrantReadWriteLock[STRIPES];
+
+    public AvailabilityEngine() {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Merges every committed stay into the calendars. Safe while bookings are
+     * being taken: each property is updated under its stripe lock, and
+     * nothing already in a calendar is dropped, so a claim whose booking has
+     * not committed yet survives. A claim overlapping a committed stay could
+     * never commit, so the committed stay replaces it.
+     */
+    @PostConstruct
+    public void rebuild() {
+        Map<Long, List<long[]>> loaded = new HashMap<>();
+        for (BookingRepository.Stay stay : bookingRepository.findActiveStaysEndingAfter(LocalDate.now().minusDays(1))) {
+            loaded.computeIfAbsent(stay.getPropertyId(), id -> new ArrayList<>())
+                .add(new long[] {stay.getCheckIn().toEpochDay(), stay.getCheckOut().toEpochDay()});
+        }
+        for (Map.Entry<Long, List<long[]>> e : loaded.entrySet()) {
+            Lock lock = stripe(e.getKey()).writeLock();
+            lock.lock();
+            try {
+                Calendar calendar = calendars.computeIfAbsent(e.getKey(), id -> new Calendar());
+                for (long[] stay : e.getValue()) calendar.merge(stay[0], stay[1]);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public boolean isAvailable(Long propertyId, LocalDate checkIn, LocalDate checkOut) {
+        return isFree(propertyId, checkIn.toEpochDay(), checkOut.toEpochDay());
+    }
+
+    /** Returns the subset of {@code propertyIds} free for the whole range, in input order. */
+    public List<Long> availableAmong(Collection<Long> propertyIds, LocalDate checkIn, LocalDate checkOut) {
+        long from = checkIn.toEpochDay(), to = checkOut.toEpochDay();
+        List<Long> free = new ArrayList<>(propertyIds.size());
+        for (Long id : propertyIds) {
+            if (isFree(id, from, to)) free.add(id);
+        }
+        return free;
+    }
+
+    /**
+     * Claims the range if no existing stay overlaps it; false if it is taken.
+     * The caller must already know the property exists, or every unknown id
+     * would leave a calendar behind.
+     */
+    public boolean tryReserve(Long propertyId, LocalDate checkIn, LocalDate checkOut) {
+        long from = checkIn.toEpochDay(), to = checkOut.toEpochDay();
+        long today = LocalDate.now().toEpochDay();
+        Lock lock = stripe(propertyId).writeLock();
+        lock.lock();
+        try {
+            Calendar calendar = calendars.computeIfAbsent(propertyId, id -> new Calendar());
+            calendar.dropEndedBy(today);
+            if (!calendar.isFree(from, to)) return false;
+            calendar.add(from, to);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(Long propertyId, LocalDate checkIn, LocalDate checkOut) {
+        Lock lock = stripe(propertyId).writeLock();
+        lock.lock();
+        try {
+            Calendar calendar = calendars.get(propertyId);
+            if (calendar == null) return;
+            calendar.remove(checkIn.toEpochDay(), checkOut.toEpochDay());
+            if (calendar.isEmpty()) calendars.remove(propertyId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isFree(Long propertyId, long from, long to) {
+        Lock lock = stripe(propertyId).readLock();
+        lock.lock();
+        try {
+            Calendar calendar = calendars.get(propertyId);
+            return calendar == null || calendar.isFree(from, to);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantReadWriteLock stripe(Long propertyId) {
+        return stripes[Long.hashCode(propertyId) & (STRIPES - 1)];
+    }
+
+    /**
+     * Disjoint half-open day ranges for one property: start day -> end day.
+     * Not thread-safe; callers hold the property's stripe lock.
+     */
+    private static final class Calendar {
+        private final TreeMap<Long, Long> stays = new TreeMap<>();
+
+        boolean isFree(long from, long to) {
+            Map.Entry<Long, Long> before = stays.floorEntry(from);
+            if (before != null && before.getValue() > from) return false;
+            Long next = stays.ceilingKey(from);
+            return next == null || next >= to;
+        }
+
+        void add(long from, long to) {
+            stays.put(from, to);
+        }
+
+        void remove(long from, long to) {
+            stays.remove(from, to);
+        }
+
+        boolean isEmpty() {
+            return stays.isEmpty();
+        }
+
+        /** Drops stays checked out on or before {@code day}; being disjoint, they are a prefix. */
+        void dropEndedBy(long day) {
+            Map.Entry<Long, Long> first;
+            while ((first = stays.firstEntry()) != null && first.getValue() <= day) stays.pollFirstEntry();
+        }
+
+        /** Adds the stay, first dropping any entry that overlaps it. */
+        void merge(long from, long to) {
+            Map.Entry<Long, Long> before = stays.floorEntry(from);
+            if (before != null && before.getValue() > from) stays.remove(before.getKey());
+            stays.subMap(from, true, to, false).clear();
+            stays.put(from, to);
+        }
+    }
+}
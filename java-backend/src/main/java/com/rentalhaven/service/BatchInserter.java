@@ -0,0 +1,46 @@
+package com.rentalhaven.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Inserts a batch of new rows in one transaction, for bulk loads. The batch
+ * is flushed as one JDBC batch and then cleared from the persistence context,
+ * so memory and dirty-checking stay per-batch however many batches follow.
+ */
+@Component
+public class BatchInserter {
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Turns each item into an entity inside the transaction and persists it.
+     * Building entities there lets {@code toEntity} take references from the
+     * live context, and means a retry after a rollback never reuses an entity
+     * the failed attempt left behind. Returns the saved, now detached, entities
+     * in input order; a failed flush rolls back the whole batch.
+     */
+    public <T, E> List<E> insert(List<T> items, BiFunction<EntityManager, T, E> toEntity) {
+        if (items.isEmpty()) return List.of();
+        return transactionTemplate.execute(tx -> {
+            List<E> saved = new ArrayList<>(items.size());
+            for (T item : items) {
+                E entity = toEntity.apply(entityManager, item);
+                entityManager.persist(entity);
+                saved.add(entity);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return saved;
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package com.rentalhaven.service;
+
+import com.rentalhaven.dto.BookingEvent;
+import com.rentalhaven.dto.PropertyDetail;
+import com.rentalhaven.model.Booking;
+import com.rentalhaven.repository.PropertyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes booking changes to STOMP subscribers of
+ * {@code /topic/properties/{propertyId}} and {@code /topic/owners/{ownerId}}.
+ *
+ * Changes are not sent as they happen. They are queued per destination,
+ * keeping only the latest state of each booking, and flushed once per
+ * {@code rentalhaven.push.tick}; a burst of updates to a hot property becomes
+ * one message per subscriber per tick. Slow subscribers are dropped by the
+ * send limits in {@code WebSocketConfig} rather than buffered.
+ */
+@Service
+public class BookingEventPublisher {
+    private static final Logger log = LoggerFactory.getLogger(BookingEventPublisher.class);
+    private static final String PROPERTY_TOPIC = "/topic/properties/";
+    private static final String OWNER_TOPIC = "/topic/owners/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PropertyRepository propertyRepository;
+    /** destination -> booking id -> latest event; an entry is removed whole when flushed. */
+    private final Map<String, Map<Long, BookingEvent>> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker;
+    private final Counter eventsCounter;
+    private final Counter messagesCounter;
+
+    public BookingEventPublisher(SimpMessagingTemplate messagingTemplate,
+                                 PropertyRepository propertyRepository,
+                                 MeterRegistry registry,
+                                 @Value("${rentalhaven.push.tick:250ms}") Duration tick) {
+        this.messagingTemplate = messagingTemplate;
+        this.propertyRepository = propertyRepository;
+        this.eventsCounter = Counter.builder("push.booking.events").description("Booking changes queued for push").register(registry);
+        this.messagesCounter = Counter.builder("push.booking.messages").description("Coalesced messages sent to topics").register(registry);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "booking-push");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleWithFixedDelay(this::flush, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** Queues a committed booking change for the property's and the owner's topics. */
+    public void bookingChanged(Booking booking) {
+        BookingEvent event = BookingEvent.of(booking);
+        enqueue(PROPERTY_TOPIC + event.propertyId(), event.withoutPayment());
+        propertyRepository.findDetailById(event.propertyId())
+            .map(PropertyDetail::ownerId)
+            .ifPresent(ownerId -> enqueue(OWNER_TOPIC + ownerId, event));
+        eventsCounter.increment();
+    }
+
+    private void enqueue(String destination, BookingEvent event) {
+        // compute() is atomic with flush()'s remove(), so no event lands in a map already taken
+        pending.compute(destination, (key, events) -> {
+            if (events == null) events = new LinkedHashMap<>();
+            events.put(event.bookingId(), event);
+            return events;
+        });
+    }
+
+    private void flush() {
+        for (String destination : pending.keySet()) {
+            Map<Long, BookingEvent> events = pending.remove(destination);
+            if (events == null) continue;
+            Map<String, Object> message = new HashMap<>();
+            String id = destination.substring(destination.lastIndexOf('/') + 1);
+            message.put(destination.startsWith(OWNER_TOPIC) ? "ownerId" : "propertyId", Long.valueOf(id));
+            message.put("bookings", new ArrayList<>(events.values()));
+            try {
+                messagingTemplate.convertAndSend(destination, message);
+                messagesCounter.increment();
+            } catch (RuntimeException e) {
+                log.warn("Could not push booking changes to {}", destination, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdown();
+    }
+}
@@ -0,0 +1,144 @@
+package com.rentalhaven.service;
+
+import com.rentalhaven.model.Booking;
+import com.rentalhaven.model.BookingStatus;
+import com.rentalhaven.model.Property;
+import com.rentalhaven.model.User;
+import com.rentalhaven.repository.BookingRepository;
+import com.rentalhaven.repository.BookingRollupRepository;
+import com.rentalhaven.repository.PropertyIndex;
+import com.rentalhaven.repository.PropertyRepository;
+import com.rentalhaven.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * Booking commit path. Nights are claimed in {@link AvailabilityEngine} before
+ * anything touches the database, so when a hot listing opens every losing
+ * request is turned away in microseconds without a query, and only the
+ * winner of each range pays for the insert. Claims on different properties
+ * never wait on each other. If the insert fails the claim is released.
+ *
+ * The booking row and its booking_daily_rollup delta commit in one transaction.
+ * Committed changes are pushed to live subscribers by {@link BookingEventPublisher}.
+ */
+@Service
+public class BookingService {
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private PropertyRepository propertyRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingRollupRepository bookingRollupRepository;
+    @Autowired
+    private PropertyIndex propertyIndex;
+    @Autowired
+    private AvailabilityEngine availabilityEngine;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private BookingEventPublisher bookingEventPublisher;
+
+    /**
+     * The amount is the property's nightly price times the nights booked; the
+     * revenue rollup is built on it, so it never comes from the client.
+     *
+     * @throws IllegalStateException if the nights are already taken
+     * @throws IllegalArgumentException if the property or user does not exist
+     */
+    public Booking create(Long propertyId, Long userId, LocalDate checkIn, LocalDate checkOut, int guests) {
+        if (!propertyExists(propertyId)) {
+            throw new IllegalArgumentException("Property not found");
+        }
+        if (!availabilityEngine.tryReserve(propertyId, checkIn, checkOut)) {
+            throw new IllegalStateException("Property is not available for the selected dates");
+        }
+        boolean committed = false;
+        try {
+            Optional<Property> propertyOpt = propertyRepository.findById(propertyId);
+            Optional<User> userOpt = userRepository.findById(userId);
+            if (propertyOpt.isEmpty() || userOpt.isEmpty()) {
+                throw new IllegalArgumentException("Property or user not found");
+            }
+            Booking booking = new Booking();
+            booking.setProperty(propertyOpt.get());
+            booking.setUser(userOpt.get());
+            booking.setCheckIn(checkIn);
+            booking.setCheckOut(checkOut);
+            booking.setGuests(guests);
+            booking.setTotalAmount(propertyOpt.get().getPricePerNight() * ChronoUnit.DAYS.between(checkIn, checkOut));
+            transactionTemplate.executeWithoutResult(tx -> {
+                bookingRepository.save(booking);
+                bookingRollupRepository.add(booking);
+            });
+            committed = true;
+            bookingEventPublisher.bookingChanged(booking);
+            return booking;
+        } catch (DataIntegrityViolationException e) {
+            // Another instance booked these nights first; the exclusion constraint caught it
+            throw new IllegalStateException("Property is not available for the selected dates");
+        } finally {
+            if (!committed) availabilityEngine.release(propertyId, checkIn, checkOut);
+        }
+    }
+
+    /**
+     * Applies a status change, releasing the nights on cancellation and
+     * re-claiming them if a cancelled booking is reinstated. The status moves
+     * with a compare-and-set on the status it was read with, so when two
+     * requests race only one transition happens, and only that one touches
+     * the rollup and the availability calendar.
+     *
+     * @throws IllegalStateException if a reinstated booking's nights have since been taken,
+     *         or the booking's status changed since it was read
+     */
+    public Booking updateStatus(Booking booking, BookingStatus status) {
+        String from = booking.getStatus();
+        if (status.value().equals(from)) return booking;
+        boolean wasActive = booking.isActive();
+        boolean reclaimed = !wasActive && status != BookingStatus.CANCELLED;
+        boolean released = wasActive && status == BookingStatus.CANCELLED;
+        Long propertyId = booking.getPropertyId();
+
+        if (reclaimed && !availabilityEngine.tryReserve(propertyId, booking.getCheckIn(), booking.getCheckOut())) {
+            throw new IllegalStateException("Property is not available for the selected dates");
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                if (bookingRepository.transitionStatus(booking.getId(), from, status.value(), LocalDateTime.now()) == 0) {
+                    throw new IllegalStateException("Booking was changed by another request; reload and try again");
+                }
+                if (reclaimed) bookingRollupRepository.add(booking);
+                if (released) bookingRollupRepository.subtract(booking);
+            });
+        } catch (RuntimeException e) {
+            if (reclaimed) availabilityEngine.release(propertyId, booking.getCheckIn(), booking.getCheckOut());
+            if (e instanceof DataIntegrityViolationException) {
+                throw new IllegalStateException("Property is not available for the selected dates");
+            }
+            throw e;
+        }
+        booking.setStatus(status.value());
+        if (released) {
+            availabilityEngine.release(propertyId, booking.getCheckIn(), booking.getCheckOut());
+        }
+        bookingEventPublisher.bookingChanged(booking);
+        return booking;
+    }
+
+    // Asked before a claim so unknown ids never reach the engine. The index answers
+    // without a query; the database covers listings it has not picked up yet.
+    private boolean propertyExists(Long propertyId) {
+        return (propertyIndex.isReady() && propertyIndex.stampOf(propertyId) != null)
+            || propertyRepository.existsById(propertyId);
+    }
+}
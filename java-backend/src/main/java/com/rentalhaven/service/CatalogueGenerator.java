@@ -0,0 +1,288 @@
+package com.rentalhaven.service;
+
+import com.rentalhaven.model.Booking;
+import com.rentalhaven.model.Property;
+import com.rentalhaven.model.User;
+import com.rentalhaven.repository.BookingRollupRepository;
+import com.rentalhaven.repository.PropertyIndex;
+import com.rentalhaven.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fills the database with synthetic users, listings and bookings for scale
+ * testing. The same seed always produces the same data. Rows are inserted in
+ * {@link CatalogueService#getBatchSize()} batches on a background thread; the
+ * derived state (booking rollup, availability calendars, search index) is
+ * rebuilt once at the end rather than maintained row by row.
+ *
+ * About 5% of users own listings. Each listing gets a run of non-overlapping
+ * stays starting six months back, so the bookings_no_overlap constraint holds.
+ * Only user ids and listing ids and prices are kept in memory, 8-16 bytes a row.
+ */
+@Service
+public class CatalogueGenerator {
+    private static final Logger log = LoggerFactory.getLogger(CatalogueGenerator.class);
+
+    private static final String[][] CITIES = {
+        {"Mumbai", "Maharashtra"}, {"Pune", "Maharashtra"}, {"Nagpur", "Maharashtra"}, {"Bangalore", "Karnataka"},
+        {"Mysore", "Karnataka"}, {"Delhi", "Delhi"}, {"Hyderabad", "Telangana"}, {"Chennai", "Tamil Nadu"},
+        {"Coimbatore", "Tamil Nadu"}, {"Goa", "Goa"}, {"Ahmedabad", "Gujarat"}, {"Surat", "Gujarat"},
+        {"Jaipur", "Rajasthan"}, {"Udaipur", "Rajasthan"}, {"Kolkata", "West Bengal"}, {"Kochi", "Kerala"},
+        {"Lucknow", "Uttar Pradesh"}, {"Chandigarh", "Chandigarh"}, {"Indore", "Madhya Pradesh"}, {"Shimla", "Himachal Pradesh"}
+    };
+    private static final String[] TYPES = {"apartment", "apartment", "apartment", "house", "studio", "villa"};
+    private static final String[] LAYOUTS = {"1RK", "1BHK", "2BHK", "2BHK", "3BHK", "4BHK"};
+    private static final String[] FEATURES = {
+        "Close to the metro", "Near IT parks", "Gated community", "Park facing", "Fully furnished",
+        "Power backup", "Covered parking", "Sea view", "Walking distance to markets", "Pet friendly"
+    };
+    private static final String[] FIRST_NAMES = {
+        "Aarav", "Vivaan", "Aditya", "Arjun", "Sai", "Reyansh", "Ishaan", "Kabir", "Rohan", "Vikram",
+        "Ananya", "Diya", "Saanvi", "Aadhya", "Isha", "Meera", "Priya", "Kavya", "Riya", "Neha"
+    };
+    private static final String[] LAST_NAMES = {
+        "Sharma", "Verma", "Iyer", "Nair", "Reddy", "Patel", "Shah", "Gupta", "Mehta", "Kapoor",
+        "Singh", "Das", "Menon", "Rao", "Joshi", "Kulkarni", "Banerjee", "Chopra", "Pillai", "Bose"
+    };
+    private static final String[] IMAGES = {
+        "https://images.unsplash.com/photo-1506744038136-46273834b3fb?auto=format&fit=crop&w=800&q=80",
+        "https://images.unsplash.com/photo-1464983953574-0892a716854b?auto=format&fit=crop&w=800&q=80",
+        "https://images.unsplash.com/photo-1512918728675-ed5a9ecdebfd?auto=format&fit=crop&w=800&q=80",
+        "https://images.unsplash.com/photo-1519125323398-675f0ddb6308?auto=format&fit=crop&w=800&q=80",
+        "https://images.unsplash.com/photo-1507089947368-19c1da9775ae?auto=format&fit=crop&w=800&q=80",
+        "https://images.unsplash.com/photo-1522708323590-d24dbb6b0267?auto=format&fit=crop&w=800&q=80"
+    };
+
+    public record Request(int users, int properties, int bookings, long seed) {}
+
+    /** Progress of the current or last run. */
+    public record Status(Request request, String phase, long users, long properties, long bookings,
+                         Instant startedAt, Instant finishedAt, String error) {
+        Status with(String phase, long users, long properties, long bookings) {
+            return new Status(request, phase, users, properties, bookings, startedAt, null, null);
+        }
+    }
+
+    @Autowired
+    private BatchInserter batchInserter;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingRollupRepository bookingRollupRepository;
+    @Autowired
+    private AvailabilityEngine availabilityEngine;
+    @Autowired
+    private PropertyIndex propertyIndex;
+    @Autowired
+    private CatalogueService catalogueService;
+
+    private final AtomicReference<Status> status = new AtomicReference<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "catalogue-generator");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public Status getStatus() {
+        return status.get();
+    }
+
+    /**
+     * Starts a run in the background.
+     *
+     * @throws IllegalStateException if a run is in progress or this seed was already generated
+     * @throws IllegalArgumentException if the counts make no sense
+     */
+    public Status start(Request request) {
+        if (request.users() < 2 || request.properties() < 0 || request.bookings() < 0) {
+            throw new IllegalArgumentException("Need at least 2 users and non-negative property and booking counts");
+        }
+        if (userRepository.findByEmail(email(request.seed(), 1)).isPresent()) {
+            throw new IllegalStateException("Seed " + request.seed() + " has already been generated; use another seed");
+        }
+        Status started = new Status(request, "queued", 0, 0, 0, Instant.now(), null, null);
+        Status current = status.get();
+        if (current != null && current.finishedAt() == null) {
+            throw new IllegalStateException("A generation run is already in progress");
+        }
+        if (!status.compareAndSet(current, started)) {
+            throw new IllegalStateException("A generation run is already in progress");
+        }
+        executor.execute(() -> run(request));
+        return started;
+    }
+
+    private void run(Request request) {
+        Random random = new Random(request.seed());
+        int batchSize = catalogueService.getBatchSize();
+        try {
+            // One hash for every synthetic account: BCrypt per user would take days at this scale
+            String password = new BCryptPasswordEncoder().encode("synthetic-" + request.seed());
+            int ownerCount = Math.max(1, request.users() / 20);
+
+            long[] userIds = new long[request.users()];
+            List<User> users = new ArrayList<>(batchSize);
+            for (int i = 0; i < request.users(); i++) {
+                User u = new User();
+                u.setEmail(email(request.seed(), i + 1));
+                u.setName(pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES));
+                u.setMobile("9" + String.format("%09d", random.nextInt(1_000_000_000)));
+                u.setRole(i < ownerCount ? "owner" : "user");
+                u.setPassword(password);
+                users.add(u);
+                if (users.size() == batchSize || i == request.users() - 1) {
+                    persist(users);
+                    for (int j = 0; j < users.size(); j++) userIds[i - users.size() + 1 + j] = users.get(j).getId();
+                    users.clear();
+                    progress("users", i + 1, 0, 0);
+                }
+            }
+
+            long[] propertyIds = new long[request.properties()];
+            double[] prices = new double[request.properties()];
+            List<Property> properties = new ArrayList<>(batchSize);
+            for (int i = 0; i < request.properties(); i++) {
+                properties.add(property(random, userIds[random.nextInt(ownerCount)]));
+                if (properties.size() == batchSize || i == request.properties() - 1) {
+                    persist(properties);
+                    for (int j = 0; j < properties.size(); j++) {
+                        int k = i - properties.size() + 1 + j;
+                        propertyIds[k] = properties.get(j).getId();
+                        prices[k] = properties.get(j).getPricePerNight();
+                    }
+                    properties.clear();
+                    progress("properties", request.users(), i + 1, 0);
+                }
+            }
+
+            long created = 0;
+            if (request.properties() > 0 && request.bookings() > 0) {
+                LocalDate start = LocalDate.now().minusMonths(6);
+                List<Booking> bookings = new ArrayList<>(batchSize);
+                for (int p = 0; p < request.properties() && created < request.bookings(); p++) {
+                    // Spread the remainder evenly over the listings still to come
+                    long remaining = request.bookings() - created;
+                    int quota = (int) Math.max(1, Math.round(remaining / (double) (request.properties() - p) * (0.5 + random.nextDouble())));
+                    LocalDate day = start.plusDays(random.nextInt(14));
+                    for (int b = 0; b < quota && created < request.bookings(); b++) {
+                        int nights = 1 + random.nextInt(7);
+                        Booking booking = booking(random, propertyIds[p], userIds[ownerCount + random.nextInt(request.users() - ownerCount)],
+                            day, day.plusDays(nights), nights * prices[p]);
+                        bookings.add(booking);
+                        created++;
+                        day = day.plusDays(nights + random.nextInt(10));
+                        if (bookings.size() == batchSize) {
+                            persist(bookings);
+                            bookings.clear();
+                            progress("bookings", request.users(), request.properties(), created);
+                        }
+                    }
+                }
+                persist(bookings);
+                progress("bookings", request.users(), request.properties(), created);
+            }
+
+            progress("rebuilding", request.users(), request.properties(), created);
+            bookingRollupRepository.rebuild();
+            availabilityEngine.rebuild();
+            propertyIndex.rebuild();
+            status.updateAndGet(s -> new Status(s.request(), "done", s.users(), s.properties(), s.bookings(), s.startedAt(), Instant.now(), null));
+        } catch (RuntimeException e) {
+            log.error("Catalogue generation failed", e);
+            status.updateAndGet(s -> new Status(s.request(), "failed", s.users(), s.properties(), s.bookings(), s.startedAt(), Instant.now(), e.getMessage()));
+        }
+    }
+
+    private void persist(List<?> entities) {
+        batchInserter.insert(entities, (entityManager, entity) -> {
+            // Swap the id-only stand-ins for references so only the foreign keys are written
+            if (entity instanceof Property p) {
+                p.setOwner(entityManager.getReference(User.class, p.getOwner().getId()));
+            } else if (entity instanceof Booking b) {
+                b.setProperty(entityManager.getReference(Property.class, b.getPropertyId()));
+                b.setUser(entityManager.getReference(User.class, b.getUserId()));
+            }
+            return entity;
+        });
+    }
+
+    private void progress(String phase, long users, long properties, long bookings) {
+        status.updateAndGet(s -> s.with(phase, users, properties, bookings));
+    }
+
+    private Property property(Random random, long ownerId) {
+        String[] city = pick(random, CITIES);
+        String type = pick(random, TYPES);
+        String layout = type.equals("studio") ? "Studio" : pick(random, LAYOUTS);
+        Property p = new Property();
+        p.setTitle(layout + " " + type + " in " + city[0]);
+        p.setDescription(layout + " " + type + " in " + city[0] + ". " + pick(random, FEATURES) + ". " + pick(random, FEATURES) + ".");
+        // Log-normal-ish spread around Rs 25k, rounded to Rs 500
+        double price = Math.round(25000 * Math.exp(random.nextGaussian() * 0.5) / 500) * 500.0;
+        p.setPricePerNight(Math.max(5000, price));
+        p.setCity(city[0]);
+        p.setState(city[1]);
+        p.setType(type);
+        p.setImages(pick(random, IMAGES));
+        p.setRating(Math.round(Math.min(5.0, 3.0 + random.nextDouble() * 2.2) * 10) / 10.0);
+        p.setReviewCount(random.nextInt(300));
+        p.setOwner(user(ownerId));
+        return p;
+    }
+
+    private Booking booking(Random random, long propertyId, long userId, LocalDate checkIn, LocalDate checkOut, double amount) {
+        Booking b = new Booking();
+        Property property = new Property();
+        property.setId(propertyId);
+        b.setProperty(property);
+        b.setUser(user(userId));
+        b.setCheckIn(checkIn);
+        b.setCheckOut(checkOut);
+        b.setGuests(1 + random.nextInt(4));
+        b.setTotalAmount(amount);
+        boolean past = checkOut.isBefore(LocalDate.now());
+        int roll = random.nextInt(100);
+        if (roll < 8) {
+            b.setStatus(Booking.STATUS_CANCELLED);
+        } else if (past) {
+            b.setStatus(Booking.STATUS_COMPLETED);
+            b.setPaymentStatus("paid");
+        } else if (roll < 70) {
+            b.setStatus(Booking.STATUS_CONFIRMED);
+            b.setPaymentStatus("paid");
+        }
+        return b;
+    }
+
+    /** An id-only stand-in; persist() replaces it with a reference. */
+    private static User user(long userId) {
+        User u = new User();
+        u.setId(userId);
+        return u;
+    }
+
+    private static String email(long seed, int n) {
+        return "synthetic-" + seed + "-" + n + "@rentalhaven.test";
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
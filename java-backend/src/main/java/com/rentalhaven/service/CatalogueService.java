@@ -0,0 +1,344 @@
+package com.rentalhaven.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.rentalhaven.dto.PropertyRow;
+import com.rentalhaven.model.Property;
+import com.rentalhaven.model.User;
+import com.rentalhaven.repository.PropertyIndex;
+import com.rentalhaven.repository.PropertyRepository;
+import com.rentalhaven.repository.UserRepository;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Bulk property import and export as NDJSON or CSV, streamed in both
+ * directions: rows are parsed and persisted {@code batch-size} at a time,
+ * each batch in its own transaction with a fresh persistence context, and
+ * exports page through the table by id. Memory stays flat whatever the file
+ * size. Sequence ids let Hibernate send each batch as one JDBC batch.
+ */
+@Service
+public class CatalogueService {
+    private static final int MAX_REPORTED_ERRORS = 20;
+    /** Length of the varchar columns Hibernate generates for the text fields. */
+    private static final int MAX_TEXT_LENGTH = 255;
+    /** Longest NDJSON line read; a valid row is well under this even with every character escaped. */
+    private static final int MAX_LINE_LENGTH = 16 * 1024;
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format fromParam(String value, String contentType) {
+            if (value != null && !value.isBlank()) {
+                return switch (value.toLowerCase(Locale.ROOT)) {
+                    case "csv" -> CSV;
+                    case "ndjson", "jsonl" -> NDJSON;
+                    default -> throw new IllegalArgumentException("Unknown format: " + value);
+                };
+            }
+            return contentType != null && contentType.startsWith("text/csv") ? CSV : NDJSON;
+        }
+    }
+
+    public record ImportResult(long imported, long rejected, List<String> errors) {}
+
+    @Autowired
+    private BatchInserter batchInserter;
+    @Autowired
+    private PropertyRepository propertyRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PropertyIndex propertyIndex;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final CsvMapper csvMapper = CsvMapper.builder().enable(CsvParser.Feature.EMPTY_STRING_AS_NULL).build();
+    private final int batchSize;
+
+    public CatalogueService(@Value("${rentalhaven.catalogue.batch-size:500}") int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() { return batchSize; }
+
+    /**
+     * Imports listings, skipping rows that fail to parse or validate; those are
+     * counted and the first few reported by line. Rows without an ownerId get
+     * {@code defaultOwnerId}. Batches already committed stay if a later one fails.
+     * A row the database still refuses is skipped the same way: its batch is
+     * retried one row at a time and only that row is rejected. Each saved batch
+     * goes into the search index as soon as it commits.
+     */
+    public ImportResult importProperties(InputStream in, Format format, Long defaultOwnerId) throws IOException {
+        Map<Long, Boolean> knownOwners = new HashMap<>();
+        Batch batch = new Batch();
+        List<String> errors = new ArrayList<>();
+        long imported = 0, rejected = 0, rowNumber = 0;
+
+        try (RowReader rows = format == Format.CSV ? new CsvRows(in) : new NdjsonRows(in)) {
+            while (true) {
+                PropertyRow row;
+                rowNumber++;
+                try {
+                    row = rows.next();
+                    if (row == null) break;
+                } catch (IOException | RuntimeException e) {
+                    if (rows.isBroken()) throw e;
+                    rejected++;
+                    report(errors, rowNumber, e instanceof IllegalArgumentException ? e.getMessage() : "unreadable row");
+                    continue;
+                }
+                Long ownerId = row.ownerId() != null ? row.ownerId() : defaultOwnerId;
+                String problem = validate(row, ownerId, knownOwners);
+                if (problem != null) {
+                    rejected++;
+                    report(errors, rowNumber, problem);
+                    continue;
+                }
+                batch.add(row, ownerId, rowNumber);
+                if (batch.size() == batchSize) {
+                    long saved = persist(batch, errors);
+                    imported += saved;
+                    rejected += batchSize - saved;
+                }
+            }
+            int last = batch.size();
+            long saved = persist(batch, errors);
+            imported += saved;
+            rejected += last - saved;
+        }
+        return new ImportResult(imported, rejected, errors);
+    }
+
+    /**
+     * Writes every listing in id order without holding more than one page in
+     * memory. Each page query runs in its own short persistence context (open-in-view
+     * is off), so rows already written are not kept reachable.
+     */
+    public void exportProperties(OutputStream out, Format format) throws IOException {
+        try (SequenceWriter writer = format == Format.CSV
+                ? csvMapper.writer(csvMapper.schemaFor(PropertyRow.class).withHeader()).writeValues(out)
+                : objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).withRootValueSeparator("\n").writeValues(out)) {
+            long lastId = 0;
+            List<Property> page;
+            do {
+                page = propertyRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(batchSize));
+                for (Property p : page) {
+                    writer.write(PropertyRow.of(p));
+                    lastId = p.getId();
+                }
+                writer.flush();
+            } while (page.size() == batchSize);
+            if (format == Format.NDJSON && lastId > 0) out.write('\n');
+        }
+    }
+
+    /**
+     * Saves the batch, indexes what was stored and returns how many rows that
+     * was; failed rows are reported.
+     */
+    private long persist(Batch batch, List<String> errors) {
+        if (batch.size() == 0) return 0;
+        List<Property> saved;
+        try {
+            saved = insert(batch.rows);
+        } catch (PersistenceException e) {
+            // One bad row rolls back the whole batch; retry row by row to save the rest
+            saved = new ArrayList<>();
+            for (Batch.Entry entry : batch.rows) {
+                try {
+                    saved.addAll(insert(List.of(entry)));
+                } catch (PersistenceException rowError) {
+                    report(errors, entry.rowNumber(), "rejected by the database");
+                }
+            }
+        }
+        propertyIndex.upsertAll(saved);
+        batch.clear();
+        return saved.size();
+    }
+
+    private List<Property> insert(List<Batch.Entry> entries) {
+        return batchInserter.insert(entries, (entityManager, entry) ->
+            toProperty(entry.row(), entityManager.getReference(User.class, entry.ownerId())));
+    }
+
+    private String validate(PropertyRow row, Long ownerId, Map<Long, Boolean> knownOwners) {
+        String missing = firstBlank(row);
+        if (missing != null) return missing + " is required";
+        if (row.title().length() > MAX_TEXT_LENGTH || row.description().length() > MAX_TEXT_LENGTH
+            || row.city().length() > MAX_TEXT_LENGTH || row.state().length() > MAX_TEXT_LENGTH
+            || row.type().length() > MAX_TEXT_LENGTH || (row.images() != null && row.images().length() > MAX_TEXT_LENGTH)) {
+            return "text fields must be at most " + MAX_TEXT_LENGTH + " characters";
+        }
+        if (row.pricePerNight() == null || row.pricePerNight() <= 0) return "pricePerNight must be positive";
+        if (row.rating() != null && (row.rating() < 0 || row.rating() > 5)) return "rating must be between 0 and 5";
+        if (ownerId == null) return "ownerId is required";
+        if (!knownOwners.computeIfAbsent(ownerId, userRepository::existsById)) return "owner " + ownerId + " does not exist";
+        return null;
+    }
+
+    private static String firstBlank(PropertyRow row) {
+        if (row.title() == null || row.title().isBlank()) return "title";
+        if (row.description() == null || row.description().isBlank()) return "description";
+        if (row.city() == null || row.city().isBlank()) return "city";
+        if (row.state() == null || row.state().isBlank()) return "state";
+        if (row.type() == null || row.type().isBlank()) return "type";
+        return null;
+    }
+
+    private static Property toProperty(PropertyRow row, User owner) {
+        Property p = new Property();
+        p.setTitle(row.title());
+        p.setDescription(row.description());
+        p.setPricePerNight(row.pricePerNight());
+        p.setCity(row.city());
+        p.setState(row.state());
+        p.setType(row.type());
+        p.setImages(row.images());
+        if (row.rating() != null) p.setRating(row.rating());
+        if (row.reviewCount() != null) p.setReviewCount(row.reviewCount());
+        p.setOwner(owner);
+        return p;
+    }
+
+    private static void report(List<String> errors, long rowNumber, String problem) {
+        if (errors.size() < MAX_REPORTED_ERRORS) errors.add("row " + rowNumber + ": " + problem);
+    }
+
+    /** Validated rows waiting for the next insert, with the owner and input row number of each. */
+    private static final class Batch {
+        record Entry(PropertyRow row, Long ownerId, long rowNumber) {}
+
+        final List<Entry> rows = new ArrayList<>();
+
+        void add(PropertyRow row, Long ownerId, long rowNumber) {
+            rows.add(new Entry(row, ownerId, rowNumber));
+        }
+
+        int size() { return rows.size(); }
+
+        void clear() { rows.clear(); }
+    }
+
+    /** Pulls one row at a time; {@link #isBroken} means the input cannot be read any further. */
+    private interface RowReader extends Closeable {
+        PropertyRow next() throws IOException;
+        boolean isBroken();
+    }
+
+    /**
+     * One JSON object per line, each parsed on its own so a bad line cannot
+     * derail the rest. Lines are read through a fixed buffer and at most
+     * {@link #MAX_LINE_LENGTH} characters are kept, so a file without line
+     * breaks cannot exhaust the heap; a longer line is skipped and rejected.
+     */
+    private final class NdjsonRows implements RowReader {
+        private final Reader reader;
+        private final ObjectReader rowReader = objectMapper.readerFor(PropertyRow.class);
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int pos, limit;
+        private boolean broken;
+
+        NdjsonRows(InputStream in) {
+            reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public PropertyRow next() throws IOException {
+            String text;
+            try {
+                do {
+                    text = readLine();
+                } while (text != null && text.isBlank());
+            } catch (IOException e) {
+                broken = true;
+                throw e;
+            }
+            return text == null ? null : rowReader.readValue(text);
+        }
+
+        /** The next line without its terminator, or null at the end of the input. */
+        private String readLine() throws IOException {
+            line.setLength(0);
+            boolean read = false, tooLong = false;
+            while (true) {
+                if (pos == limit) {
+                    limit = Math.max(reader.read(buffer), 0);
+                    pos = 0;
+                    if (limit == 0) {
+                        if (!read) return null;
+                        break;
+                    }
+                }
+                read = true;
+                int start = pos;
+                while (pos < limit && buffer[pos] != '\n') pos++;
+                if (!tooLong && line.length() + pos - start > MAX_LINE_LENGTH) {
+                    tooLong = true;
+                    line.setLength(0);
+                }
+                if (!tooLong) line.append(buffer, start, pos - start);
+                if (pos < limit) {
+                    pos++;
+                    break;
+                }
+            }
+            if (tooLong) throw new IllegalArgumentException("line longer than " + MAX_LINE_LENGTH + " characters");
+            return line.toString();
+        }
+
+        @Override
+        public boolean isBroken() { return broken; }
+
+        @Override
+        public void close() throws IOException { reader.close(); }
+    }
+
+    /** CSV with a header row naming the columns; quoted fields may span lines. */
+    private final class CsvRows implements RowReader {
+        private final MappingIterator<PropertyRow> rows;
+
+        CsvRows(InputStream in) throws IOException {
+            rows = csvMapper.readerFor(PropertyRow.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(in);
+        }
+
+        private boolean broken;
+
+        @Override
+        public PropertyRow next() throws IOException {
+            try {
+                return rows.hasNextValue() ? rows.nextValue() : null;
+            } catch (IOException e) {
+                // A value of the wrong type is a mapping error and the parser resumes at the next row
+                if (!(e instanceof JsonMappingException)) broken = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean isBroken() { return broken; }
+
+        @Override
+        public void close() throws IOException { rows.close(); }
+    }
+}
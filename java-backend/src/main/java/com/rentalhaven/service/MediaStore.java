@@ -0,0 +1,160 @@
+package com.rentalhaven.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Content-addressed file store for uploaded media. Bytes are streamed to a
+ * temporary file while being hashed (SHA-256), then moved to
+ * {@code <root>/<first two hex chars>/<hash>.<ext>}. A file whose hash is
+ * already stored is dropped, so identical photos are kept once.
+ *
+ * The type comes from the file's leading magic bytes, never from what the
+ * client declared. Only formats ImageIO can decode into thumbnails (JPEG,
+ * PNG, GIF) are accepted.
+ */
+@Service
+public class MediaStore {
+    private static final Map<String, String> EXTENSIONS = Map.of(
+        "image/jpeg", "jpg",
+        "image/png", "png",
+        "image/gif", "gif");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** Enough leading bytes to tell the accepted formats apart. */
+    private static final int SNIFF_BYTES = 8;
+
+    private final Path root;
+    private final Path tmp;
+    private final long maxBytes;
+
+    public MediaStore(@Value("${rentalhaven.media.dir:uploads}") String dir,
+                      @Value("${rentalhaven.media.max-size:10MB}") DataSize maxSize) throws IOException {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+        this.tmp = Files.createDirectories(root.resolve("tmp"));
+        this.maxBytes = maxSize.toBytes();
+    }
+
+    public long getMaxBytes() { return maxBytes; }
+
+    /**
+     * Streams {@code in} into the store.
+     *
+     * @throws MediaTooLargeException once more than the configured maximum has been read
+     * @throws UnsupportedMediaException as soon as the leading bytes show it is not JPEG, PNG or GIF
+     */
+    public StoredMedia store(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        Path part = tmp.resolve(UUID.randomUUID() + ".part");
+        byte[] head = new byte[SNIFF_BYTES];
+        String contentType = null;
+        long size = 0;
+        try {
+            try (OutputStream out = Files.newOutputStream(part, StandardOpenOption.CREATE_NEW)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    if (size < SNIFF_BYTES) {
+                        System.arraycopy(buffer, 0, head, (int) size, (int) Math.min(n, SNIFF_BYTES - size));
+                    }
+                    size += n;
+                    if (size > maxBytes) throw new MediaTooLargeException(maxBytes);
+                    if (contentType == null && size >= SNIFF_BYTES) contentType = sniff(head);
+                    digest.update(buffer, 0, n);
+                    out.write(buffer, 0, n);
+                }
+            }
+            if (contentType == null) contentType = sniff(head);
+            String ext = EXTENSIONS.get(contentType);
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathFor(hash, ext);
+            boolean duplicate = Files.exists(target);
+            if (!duplicate) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // A concurrent upload of the same bytes won the race
+                    duplicate = true;
+                }
+            }
+            return new StoredMedia(hash, ext, contentType, size, duplicate, target);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    /** Where the original with this hash lives. */
+    public Path pathFor(String hash, String ext) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash + "." + ext);
+    }
+
+    /** Where a resized variant (see {@link ThumbnailService#VARIANTS}) of this hash lives. */
+    public Path derivativePath(String hash, String variant) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash + "-" + variant + ".jpg");
+    }
+
+    /** Locates the original for a hash, whatever its extension. */
+    public Optional<Path> findOriginal(String hash) {
+        for (String ext : EXTENSIONS.values()) {
+            Path path = pathFor(hash, ext);
+            if (Files.exists(path)) return Optional.of(path);
+        }
+        return Optional.empty();
+    }
+
+    /** Content type for a stored file's extension. */
+    public static String contentTypeOf(String ext) {
+        for (Map.Entry<String, String> e : EXTENSIONS.entrySet()) {
+            if (e.getValue().equals(ext)) return e.getKey();
+        }
+        return "application/octet-stream";
+    }
+
+    /** A fresh temporary path in the store's volume, so finished files can be moved atomically. */
+    public Path tempFile() {
+        return tmp.resolve(UUID.randomUUID() + ".part");
+    }
+
+    private static String sniff(byte[] head) throws UnsupportedMediaException {
+        if ((head[0] & 0xff) == 0xff && (head[1] & 0xff) == 0xd8 && (head[2] & 0xff) == 0xff) return "image/jpeg";
+        if ((head[0] & 0xff) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G'
+            && head[4] == '\r' && head[5] == '\n' && head[6] == 0x1a && head[7] == '\n') return "image/png";
+        if (head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8'
+            && (head[4] == '7' || head[4] == '9') && head[5] == 'a') return "image/gif";
+        throw new UnsupportedMediaException();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record StoredMedia(String hash, String ext, String contentType, long size, boolean duplicate, Path path) {}
+
+    public static class UnsupportedMediaException extends IOException {
+        public UnsupportedMediaException() {
+            super("Only JPEG, PNG and GIF images are accepted");
+        }
+    }
+
+    public static class MediaTooLargeException extends IOException {
+        public MediaTooLargeException(long maxBytes) {
+            super("File exceeds the " + DataSize.ofBytes(maxBytes).toMegabytes() + "MB upload limit");
+        }
+    }
+}
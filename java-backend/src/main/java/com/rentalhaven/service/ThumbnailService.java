@@ -0,0 +1,176 @@
+package com.rentalhaven.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates resized JPEG derivatives of stored images on a small background
+ * pool with a bounded queue, so uploads return as soon as the original is on
+ * disk. If the queue is full the job is dropped and logged; the original is
+ * still served until the derivative is requested again.
+ *
+ * Each original is queued at most once at a time: a hash stays marked pending
+ * until its job ends, so repeated misses on the same derivative do not pile
+ * up duplicate jobs. Images that cannot be decoded are marked failed and never
+ * queued again.
+ *
+ * Decoding is bounded: the dimensions are read from the header first, images
+ * declaring more than {@code max-pixels} are skipped, and larger ones are
+ * subsampled while decoding to about twice the widest variant.
+ */
+@Service
+public class ThumbnailService {
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    /** Variant name -> maximum width in pixels. */
+    public static final Map<String, Integer> VARIANTS = Map.of("card", 480, "detail", 1280);
+
+    /** Decode at most this wide; the resize from there down is still good quality. */
+    private static final int DECODE_WIDTH = 2 * Collections.max(VARIANTS.values());
+
+    private enum State { PENDING, FAILED }
+
+    @Autowired
+    private MediaStore mediaStore;
+
+    private final ThreadPoolExecutor executor;
+    /** Hash -> job state; absent means not queued and not known to fail. */
+    private final ConcurrentHashMap<String, State> states = new ConcurrentHashMap<>();
+    private final long maxPixels;
+
+    public ThumbnailService(@Value("${rentalhaven.media.thumbnail-threads:2}") int threads,
+                            @Value("${rentalhaven.media.thumbnail-queue:200}") int queueCapacity,
+                            @Value("${rentalhaven.media.max-pixels:50000000}") long maxPixels) {
+        this.maxPixels = maxPixels;
+        AtomicInteger n = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> {
+                Thread t = new Thread(r, "thumbnail-" + n.incrementAndGet());
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues derivative generation for a stored original. Returns true if a job
+     * is queued or already pending, false if the queue is full or the image is
+     * known not to decode.
+     */
+    public boolean submit(MediaStore.StoredMedia media) {
+        return submit(media.hash(), media.path());
+    }
+
+    public boolean submit(String hash, Path original) {
+        State state = states.putIfAbsent(hash, State.PENDING);
+        if (state != null) return state == State.PENDING;
+        try {
+            executor.execute(() -> generate(hash, original));
+            return true;
+        } catch (RejectedExecutionException e) {
+            states.remove(hash, State.PENDING);
+            log.warn("Thumbnail queue full, skipping derivatives for {}", hash);
+            return false;
+        }
+    }
+
+    private void generate(String hash, Path original) {
+        boolean failed = false;
+        try {
+            BufferedImage source = null;
+            for (Map.Entry<String, Integer> variant : VARIANTS.entrySet()) {
+                Path target = mediaStore.derivativePath(hash, variant.getKey());
+                if (Files.exists(target)) continue;
+                if (source == null) {
+                    source = decode(original);
+                    if (source == null) {
+                        log.warn("Unreadable or oversized image {}, no derivatives generated", hash);
+                        failed = true;
+                        return;
+                    }
+                }
+                Path part = mediaStore.tempFile();
+                try {
+                    ImageIO.write(resize(source, variant.getValue()), "jpg", part.toFile());
+                    Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    Files.deleteIfExists(part);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Thumbnail generation failed for {}", hash, e);
+            failed = true;
+        } finally {
+            if (failed) {
+                states.put(hash, State.FAILED);
+            } else {
+                states.remove(hash);
+            }
+        }
+    }
+
+    /** Decodes the first frame, or returns null if no reader fits or it declares too many pixels. */
+    private BufferedImage decode(Path original) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : Collections.emptyIterator();
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long width = reader.getWidth(0), height = reader.getHeight(0);
+                if (width <= 0 || height <= 0 || width * height > maxPixels) return null;
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = (int) Math.max(1, width / DECODE_WIDTH);
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int maxWidth) {
+        int width = Math.min(maxWidth, source.getWidth());
+        int height = Math.max(1, (int) Math.round(source.getHeight() * (width / (double) source.getWidth())));
+        // JPEG has no alpha; draw onto an opaque RGB canvas
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
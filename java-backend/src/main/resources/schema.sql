@@ -0,0 +1,59 @@
+-- Runs after Hibernate's schema update (spring.jpa.defer-datasource-initialization).
+-- Statements are separated by ^; so that DO blocks survive script splitting.
+
+-- No two live bookings of the same property may share a night. The in-memory
+-- AvailabilityEngine rejects overlaps first; this is the last line of defence.
+CREATE EXTENSION IF NOT EXISTS btree_gist^;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'bookings_no_overlap') THEN
+        ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap
+            EXCLUDE USING gist (property_id WITH =, daterange(check_in, check_out, '[)') WITH &&)
+            WHERE (status <> 'cancelled');
+    END IF;
+END $$^;
+
+-- Per property per night: how many nights are booked (0 or 1), check-ins, and
+-- revenue attributed to that night. Maintained by BookingRollupRepository as
+-- bookings change, so dashboard queries scale with the window, not history.
+CREATE TABLE IF NOT EXISTS booking_daily_rollup (
+    property_id   BIGINT           NOT NULL,
+    owner_id      BIGINT,
+    day           DATE             NOT NULL,
+    booked_nights INTEGER          NOT NULL DEFAULT 0,
+    check_ins     INTEGER          NOT NULL DEFAULT 0,
+    revenue       DOUBLE PRECISION NOT NULL DEFAULT 0,
+    PRIMARY KEY (property_id, day)
+)^;
+
+CREATE INDEX IF NOT EXISTS idx_booking_daily_rollup_owner_day ON booking_daily_rollup (owner_id, day)^;
+
+-- One-off backfill when the rollup is introduced on a database that already has bookings
+INSERT INTO booking_daily_rollup (property_id, owner_id, day, booked_nights, check_ins, revenue)
+SELECT b.property_id, p.owner_id, d::date, 1,
+       CASE WHEN d::date = b.check_in THEN 1 ELSE 0 END,
+       b.total_amount / (b.check_out - b.check_in)
+FROM bookings b
+JOIN properties p ON p.id = b.property_id
+CROSS JOIN generate_series(b.check_in, b.check_out - 1, interval '1 day') d
+WHERE b.status <> 'cancelled'
+  AND NOT EXISTS (SELECT 1 FROM booking_daily_rollup)
+ON CONFLICT (property_id, day) DO NOTHING^;
+
+-- Rows created before properties gained version/updated_at (conditional GET support)
+UPDATE properties SET version = 0 WHERE version IS NULL^;
+UPDATE properties SET updated_at = now() WHERE updated_at IS NULL^;
+
+-- Ids come from pooled sequences (50 per allocation) rather than IDENTITY so
+-- inserts can be batched. On databases created with IDENTITY ids, move each
+-- sequence past the existing rows; it never moves backwards.
+DO $$
+DECLARE
+    t text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['users', 'properties', 'bookings'] LOOP
+        EXECUTE format('SELECT setval(%L, GREATEST((SELECT COALESCE(MAX(id), 0) FROM %I) + 50, (SELECT last_value FROM %I)))',
+            t || '_seq', t, t || '_seq');
+    END LOOP;
+END $$^;
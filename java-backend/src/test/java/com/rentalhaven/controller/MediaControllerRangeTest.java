@@ -0,0 +1,56 @@
+package com.rentalhaven.controller;
+
+import com.rentalhaven.controller.MediaController.Range;
+import org.junit.jupiter.api.Test;
+
+import static com.rentalhaven.controller.MediaController.parseRange;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MediaControllerRangeTest {
+    private static final long SIZE = 1000;
+
+    @Test
+    void noHeaderServesTheWholeFile() {
+        assertNull(parseRange(null, SIZE));
+    }
+
+    @Test
+    void boundedRange() {
+        assertEquals(new Range(0, 499), parseRange("bytes=0-499", SIZE));
+        assertEquals(new Range(500, 999), parseRange(" bytes=500-999 ", SIZE));
+    }
+
+    @Test
+    void openEndedRangeRunsToTheLastByte() {
+        assertEquals(new Range(900, 999), parseRange("bytes=900-", SIZE));
+    }
+
+    @Test
+    void suffixRangeTakesTheLastBytes() {
+        assertEquals(new Range(800, 999), parseRange("bytes=-200", SIZE));
+        assertEquals(new Range(0, 999), parseRange("bytes=-5000", SIZE));
+    }
+
+    @Test
+    void endPastTheFileIsClamped() {
+        assertEquals(new Range(990, 999), parseRange("bytes=990-5000", SIZE));
+    }
+
+    @Test
+    void unsatisfiableRanges() {
+        assertSame(Range.NOT_SATISFIABLE, parseRange("bytes=1000-", SIZE));
+        assertSame(Range.NOT_SATISFIABLE, parseRange("bytes=500-100", SIZE));
+        assertSame(Range.NOT_SATISFIABLE, parseRange("bytes=-0", SIZE));
+        assertSame(Range.NOT_SATISFIABLE, parseRange("bytes=0-", 0));
+    }
+
+    @Test
+    void multiRangeAndMalformedHeadersServeTheWholeFile() {
+        assertNull(parseRange("bytes=0-10,20-30", SIZE));
+        assertNull(parseRange("bytes=-", SIZE));
+        assertNull(parseRange("items=0-10", SIZE));
+        assertNull(parseRange("bytes=abc-def", SIZE));
+        // More digits than a long holds
+        assertNull(parseRange("bytes=0-9999999999999999999", SIZE));
+    }
+}
@@ -0,0 +1,51 @@
+package com.rentalhaven.repository;
+
+import com.rentalhaven.dto.PropertyCard;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropertyCursorTest {
+
+    @Test
+    void roundTripsKeyAndId() {
+        PropertyCursor cursor = PropertyCursor.decode(new PropertyCursor(4.75, 123456789L).encode());
+        assertEquals(4.75, cursor.getKey());
+        assertEquals(123456789L, cursor.getId());
+    }
+
+    @Test
+    void encodingIsUrlSafeWithoutPadding() {
+        String token = new PropertyCursor(-0.1, Long.MAX_VALUE).encode();
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+        assertEquals(Long.MAX_VALUE, PropertyCursor.decode(token).getId());
+    }
+
+    @Test
+    void absentTokenMeansFirstPage() {
+        assertNull(PropertyCursor.decode(null));
+        assertNull(PropertyCursor.decode("  "));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        String noSeparator = Base64.getUrlEncoder().encodeToString("4.5".getBytes());
+        String notANumber = Base64.getUrlEncoder().encodeToString("abc:12".getBytes());
+        for (String token : new String[] {"!!not-base64!!", noSeparator, notANumber}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> PropertyCursor.decode(token));
+            assertEquals("Invalid cursor", e.getMessage());
+        }
+    }
+
+    @Test
+    void takesTheKeyOfTheSortFromTheLastCard() {
+        PropertyCard last = new PropertyCard(42L, "Flat", 2500.0, "Pune", "Maharashtra", "apartment",
+            null, 4.5, 10, 7L, "Owner");
+        assertEquals(4.5, PropertyCursor.of(PropertySort.RATING, last).getKey());
+        assertEquals(2500.0, PropertyCursor.of(PropertySort.PRICE_HIGH, last).getKey());
+        assertEquals(42.0, PropertyCursor.of(PropertySort.NEWEST, last).getKey());
+        assertEquals(42L, PropertyCursor.of(PropertySort.PRICE_LOW, last).getId());
+    }
+}
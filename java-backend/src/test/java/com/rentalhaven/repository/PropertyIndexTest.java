@@ -0,0 +1,246 @@
+package com.rentalhaven.repository;
+
+import com.rentalhaven.model.Property;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PropertyIndexTest {
+    private static final String[] CITIES = {"Pune", "Nashik", "Mumbai"};
+    private static final String[] STATES = {"Maharashtra", "Goa"};
+    private static final String[] TYPES = {"apartment", "villa", "cottage"};
+    private static final PropertyFilter NO_FILTER = new PropertyFilter(null, null, null, null, null, null, null);
+
+    @Test
+    void pagesMatchAFullSortForEveryOrderAndFilter() {
+        List<Property> catalogue = catalogue(400, 42);
+        PropertyIndex index = new PropertyIndex();
+        catalogue.forEach(index::upsert);
+
+        List<PropertyFilter> filters = List.of(
+            NO_FILTER,
+            new PropertyFilter("Pune", null, null, null, null, null, null),
+            new PropertyFilter(null, "Goa", null, "villa", 2000.0, 6000.0, null),
+            new PropertyFilter(null, null, "mum", null, null, null, 4.0),
+            // Matches a handful of listings, so the page comes from the heap rather than a walk
+            new PropertyFilter("Nashik", null, null, "cottage", 9000.0, null, null));
+        for (PropertyFilter filter : filters) {
+            for (PropertySort sort : PropertySort.values()) {
+                assertEquals(expected(catalogue, filter, sort), allPages(index, filter, sort, 7),
+                    sort + " with " + describe(filter));
+            }
+        }
+    }
+
+    @Test
+    void firstPageCarriesTotalAndFacetsAndLaterPagesDoNot() {
+        PropertyIndex index = new PropertyIndex();
+        index.upsert(property(1, "Pune", "Maharashtra", "apartment", 1500, 4.0));
+        index.upsert(property(2, "Pune", "Maharashtra", "villa", 12000, 4.5));
+        index.upsert(property(3, "Panaji", "Goa", "villa", 25000, 5.0));
+
+        PropertyIndex.Result first = index.search(NO_FILTER, PropertySort.PRICE_LOW, null, 2);
+        assertArrayEquals(new long[] {1, 2}, first.getIds());
+        assertEquals(3, first.getTotal());
+        assertEquals(Map.of("Pune", 2, "Panaji", 1), first.getFacets().get("city"));
+        assertEquals(Map.of("apartment", 1, "villa", 2), first.getFacets().get("type"));
+        assertEquals(1, first.getFacets().get("price").get("0-10000"));
+        assertEquals(1, first.getFacets().get("price").get("20000-30000"));
+
+        PropertyIndex.Result second = index.search(NO_FILTER, PropertySort.PRICE_LOW, first.getNextCursor(), 2);
+        assertArrayEquals(new long[] {3}, second.getIds());
+        assertNull(second.getNextCursor());
+        assertEquals(-1, second.getTotal());
+        assertNull(second.getFacets());
+    }
+
+    @Test
+    void unknownFacetValueMatchesNothing() {
+        PropertyIndex index = new PropertyIndex();
+        index.upsert(property(1, "Pune", "Maharashtra", "apartment", 1500, 4.0));
+
+        PropertyIndex.Result result = index.search(new PropertyFilter("Atlantis", null, null, null, null, null, null),
+            PropertySort.RATING, null, 10);
+        assertEquals(0, result.getIds().length);
+        assertEquals(0, result.getTotal());
+    }
+
+    @Test
+    void upsertMovesAPropertyInEveryOrderAndFacet() {
+        PropertyIndex index = new PropertyIndex();
+        index.upsert(property(1, "Pune", "Maharashtra", "apartment", 1000, 3.0));
+        index.upsert(property(2, "Pune", "Maharashtra", "apartment", 2000, 4.0));
+        index.upsert(property(1, "Nashik", "Maharashtra", "villa", 3000, 5.0));
+
+        assertArrayEquals(new long[] {2, 1}, index.search(NO_FILTER, PropertySort.PRICE_LOW, null, 10).getIds());
+        assertArrayEquals(new long[] {1, 2}, index.search(NO_FILTER, PropertySort.RATING, null, 10).getIds());
+        PropertyIndex.Result pune = index.search(new PropertyFilter("Pune", null, null, null, null, null, null),
+            PropertySort.RATING, null, 10);
+        assertArrayEquals(new long[] {2}, pune.getIds());
+        assertEquals(Map.of("Pune", 1, "Nashik", 1),
+            index.search(NO_FILTER, PropertySort.RATING, null, 10).getFacets().get("city"));
+    }
+
+    @Test
+    void batchUpsertMergesNewAndMovesExistingProperties() {
+        List<Property> catalogue = catalogue(600, 5);
+        PropertyIndex index = new PropertyIndex();
+        catalogue.subList(0, 200).forEach(index::upsert);
+
+        List<Property> batch = new ArrayList<>(catalogue.subList(200, 600));
+        Property moved = property(catalogue.get(0).getId(), "Mumbai", "Goa", "villa", 7777, 3.5);
+        batch.add(moved);
+        // The same new id twice in one batch: the later row wins
+        batch.add(property(catalogue.get(599).getId(), "Pune", "Goa", "cottage", 123, 5.0));
+        index.upsertAll(batch);
+
+        List<Property> expected = new ArrayList<>(catalogue);
+        expected.set(0, moved);
+        expected.set(599, batch.get(batch.size() - 1));
+        for (PropertySort sort : PropertySort.values()) {
+            assertEquals(expected(expected, NO_FILTER, sort), allPages(index, NO_FILTER, sort, 50), sort.toString());
+        }
+        assertEquals(600, index.footprint().get("properties"));
+    }
+
+    @Test
+    void rebuildSwapsInTheDatabaseStateAndKeepsWritesThatRacedIt() {
+        PropertyRepository repository = mock(PropertyRepository.class);
+        PropertyIndex index = new PropertyIndex();
+        ReflectionTestUtils.setField(index, "propertyRepository", repository);
+        // Indexed before the rebuild but no longer in the database (catalogue ids are multiples of 3)
+        index.upsert(property(1, "Pune", "Maharashtra", "apartment", 500, 4.0));
+        assertFalse(index.isReady());
+
+        List<Property> rows = catalogue(2500, 7);
+        Property racing = property(5000, "Mumbai", "Maharashtra", "villa", 9999, 4.9);
+        when(repository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenAnswer(call -> {
+            long after = call.getArgument(0);
+            if (after == 0) index.upsert(racing);
+            return rows.stream().sorted(Comparator.comparing(Property::getId))
+                .filter(p -> p.getId() > after).limit(1000).toList();
+        });
+        String tagBefore = index.catalogueTag();
+
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertNotEquals(tagBefore, index.catalogueTag());
+        assertNull(index.stampOf(1L));
+        assertNotNull(index.stampOf(5000L));
+        List<Property> expected = new ArrayList<>(rows);
+        expected.add(racing);
+        for (PropertySort sort : PropertySort.values()) {
+            assertEquals(expected(expected, NO_FILTER, sort), allPages(index, NO_FILTER, sort, 100), sort.toString());
+        }
+        assertEquals(2501, index.footprint().get("properties"));
+    }
+
+    @Test
+    void textSearchRanksByRelevanceAndPagesWithReusedBuffers() {
+        PropertyIndex index = new PropertyIndex();
+        List<Property> catalogue = catalogue(3000, 11);
+        catalogue.forEach(index::upsert);
+        Property best = property(100000, "Pune", "Maharashtra", "villa", 8000, 4.0);
+        best.setTitle("Villa with pool");
+        best.setDescription("Private pool villa with a pool deck");
+        index.upsert(best);
+
+        PropertyIndex.Result first = index.searchText("pool villas", NO_FILTER, null, 5);
+        assertEquals(100000L, first.getIds()[0]);
+        // Every generated listing says "Listing <id>" and "A place in <city>"; only villas match the query
+        long villas = catalogue.stream().filter(p -> p.getType().equals("villa")).count() + 1;
+        assertEquals(villas, first.getTotal());
+
+        List<Long> paged = new ArrayList<>();
+        PropertyCursor cursor = null;
+        do {
+            PropertyIndex.Result page = index.searchText("pool villas", NO_FILTER, cursor, 50);
+            for (long id : page.getIds()) paged.add(id);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(villas, paged.size());
+        assertEquals(villas, new HashSet<>(paged).size());
+
+        // A second identical query on a recycled buffer must score the same
+        assertArrayEquals(first.getIds(), index.searchText("pool villas", NO_FILTER, null, 5).getIds());
+        assertEquals(0, index.searchText("nothing-matches-this", NO_FILTER, null, 5).getTotal());
+        assertTrue((long) index.footprint().get("scoreBufferBytes") > 0);
+    }
+
+    private static List<Long> allPages(PropertyIndex index, PropertyFilter filter, PropertySort sort, int limit) {
+        List<Long> ids = new ArrayList<>();
+        PropertyCursor cursor = null;
+        do {
+            // Round-trip the cursor as a client would
+            PropertyIndex.Result page = index.search(filter, sort, cursor == null ? null : PropertyCursor.decode(cursor.encode()), limit);
+            for (long id : page.getIds()) ids.add(id);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static List<Long> expected(List<Property> catalogue, PropertyFilter filter, PropertySort sort) {
+        Comparator<Property> byKey = switch (sort) {
+            case RATING -> Comparator.comparing(Property::getRating);
+            case PRICE_LOW, PRICE_HIGH -> Comparator.comparing(Property::getPricePerNight);
+            case NEWEST -> Comparator.comparing(Property::getId);
+        };
+        Comparator<Property> order = byKey.thenComparing(Property::getId);
+        if (sort.getDirection() == org.springframework.data.domain.Sort.Direction.DESC) order = order.reversed();
+        return catalogue.stream().filter(matching(filter)).sorted(order).map(Property::getId).collect(Collectors.toList());
+    }
+
+    private static Predicate<Property> matching(PropertyFilter f) {
+        return p -> (f.getCity() == null || f.getCity().equals(p.getCity()))
+            && (f.getState() == null || f.getState().equals(p.getState()))
+            && (f.getType() == null || f.getType().equals(p.getType()))
+            && (f.getLocation() == null || p.getCity().toLowerCase().contains(f.getLocation())
+                || p.getState().toLowerCase().contains(f.getLocation()))
+            && (f.getMinPrice() == null || p.getPricePerNight() >= f.getMinPrice())
+            && (f.getMaxPrice() == null || p.getPricePerNight() <= f.getMaxPrice())
+            && (f.getMinRating() == null || p.getRating() >= f.getMinRating());
+    }
+
+    /** Ids in shuffled order, so ordinals do not follow ids; few distinct prices and ratings, so ties are common. */
+    private static List<Property> catalogue(int n, long seed) {
+        Random random = new Random(seed);
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= n; id++) ids.add(id * 3);
+        Collections.shuffle(ids, random);
+        List<Property> catalogue = new ArrayList<>();
+        for (long id : ids) {
+            catalogue.add(property(id, CITIES[random.nextInt(CITIES.length)], STATES[random.nextInt(STATES.length)],
+                TYPES[random.nextInt(TYPES.length)], 500 * (1 + random.nextInt(20)), 3 + random.nextInt(5) * 0.5));
+        }
+        return catalogue;
+    }
+
+    private static Property property(long id, String city, String state, String type, double price, double rating) {
+        Property p = new Property();
+        p.setId(id);
+        p.setTitle("Listing " + id);
+        p.setDescription("A place in " + city);
+        p.setCity(city);
+        p.setState(state);
+        p.setType(type);
+        p.setPricePerNight(price);
+        p.setRating(rating);
+        return p;
+    }
+
+    private static String describe(PropertyFilter f) {
+        return f.getCity() + "/" + f.getState() + "/" + f.getLocation() + "/" + f.getType() + "/"
+            + f.getMinPrice() + "-" + f.getMaxPrice() + "/" + f.getMinRating();
+    }
+}
@@ -0,0 +1,39 @@
+package com.rentalhaven.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextAnalyzerTest {
+
+    @Test
+    void splitsOnAnythingButLettersAndDigitsAndLowercases() {
+        assertEquals(List.of("sunny", "2bhk", "near", "f", "c", "road"), TextAnalyzer.terms("Sunny 2BHK, near F.C.-Road!"));
+    }
+
+    @Test
+    void dropsStopWords() {
+        assertEquals(List.of("view", "hill"), TextAnalyzer.terms("The view of the hills"));
+    }
+
+    @Test
+    void stripsPluralSOnlyFromLongEnoughWords() {
+        assertEquals(List.of("flat", "villa", "bus", "glass", "gas"), TextAnalyzer.terms("flats villas bus glass gas"));
+        // A digit before the s is not a plural
+        assertEquals(List.of("1990s"), TextAnalyzer.terms("1990s"));
+    }
+
+    @Test
+    void handlesNonAsciiLetters() {
+        assertEquals(List.of("café", "pune"), TextAnalyzer.terms("Café · Pune"));
+    }
+
+    @Test
+    void emptyAndNullTextHaveNoTerms() {
+        assertTrue(TextAnalyzer.terms(null).isEmpty());
+        assertTrue(TextAnalyzer.terms("").isEmpty());
+        assertTrue(TextAnalyzer.terms(" -- ").isEmpty());
+    }
+}
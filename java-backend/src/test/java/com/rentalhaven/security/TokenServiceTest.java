@@ -0,0 +1,93 @@
+package com.rentalhaven.security;
+
+import com.rentalhaven.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final TokenRevocationList revocations = new TokenRevocationList();
+
+    @Test
+    void verifiesWhatItIssued() {
+        TokenService tokens = service(SECRET, Duration.ofHours(1));
+        AuthenticatedUser user = tokens.verify(tokens.issue(user()));
+        assertEquals(new AuthenticatedUser(7L, "owner@example.com", "Owner", "owner"), user);
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        TokenService tokens = service(SECRET, Duration.ofSeconds(-1));
+        assertNull(tokens.verify(tokens.issue(user())));
+    }
+
+    @Test
+    void rejectsTamperedClaimsAndSignatures() {
+        TokenService tokens = service(SECRET, Duration.ofHours(1));
+        String token = tokens.issue(user());
+        String[] parts = token.split("\\.");
+
+        String claims = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+        String promoted = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(claims.replace("\"owner\"", "\"admin\"").getBytes(StandardCharsets.UTF_8));
+        assertNull(tokens.verify(parts[0] + "." + promoted + "." + parts[2]));
+
+        // The first character is all signature bits; the last one carries padding bits too
+        String flipped = (parts[2].charAt(0) == 'A' ? 'B' : 'A') + parts[2].substring(1);
+        assertNull(tokens.verify(parts[0] + "." + parts[1] + "." + flipped));
+    }
+
+    @Test
+    void rejectsTokensSignedWithAnotherKey() {
+        String foreign = service("fedcba9876543210fedcba9876543210", Duration.ofHours(1)).issue(user());
+        assertNull(service(SECRET, Duration.ofHours(1)).verify(foreign));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        TokenService tokens = service(SECRET, Duration.ofHours(1));
+        for (String token : new String[] {null, "", "abc", "a.b", "a.b.c", "..."}) {
+            assertNull(tokens.verify(token), String.valueOf(token));
+        }
+    }
+
+    @Test
+    void revokedTokensStopVerifyingButOthersDoNot() {
+        TokenService tokens = service(SECRET, Duration.ofHours(1));
+        String revoked = tokens.issue(user());
+        String other = tokens.issue(user());
+
+        assertTrue(tokens.revoke(revoked));
+        assertNull(tokens.verify(revoked));
+        assertNotNull(tokens.verify(other));
+        assertFalse(tokens.revoke("not-a-token"));
+        assertEquals(1, revocations.size());
+    }
+
+    @Test
+    void refusesShortSecrets() {
+        assertThrows(IllegalStateException.class, () -> new TokenService("too-short", Duration.ofHours(1)));
+    }
+
+    private TokenService service(String secret, Duration ttl) {
+        TokenService tokens = new TokenService(secret, ttl);
+        ReflectionTestUtils.setField(tokens, "revocationList", revocations);
+        return tokens;
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("owner@example.com");
+        user.setName("Owner");
+        user.setRole("owner");
+        return user;
+    }
+}
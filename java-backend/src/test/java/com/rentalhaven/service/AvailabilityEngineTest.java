@@ -0,0 +1,101 @@
+package com.rentalhaven.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityEngineTest {
+    private static final LocalDate DAY = LocalDate.now().plusDays(30);
+
+    private final AvailabilityEngine engine = new AvailabilityEngine();
+
+    @Test
+    void overlappingStaysAreRejectedAndAdjacentOnesAllowed() {
+        assertTrue(engine.tryReserve(1L, DAY, DAY.plusDays(3)));
+        assertFalse(engine.tryReserve(1L, DAY.plusDays(2), DAY.plusDays(5)), "overlaps the end");
+        assertFalse(engine.tryReserve(1L, DAY.minusDays(1), DAY.plusDays(1)), "overlaps the start");
+        assertFalse(engine.tryReserve(1L, DAY.plusDays(1), DAY.plusDays(2)), "inside");
+        assertFalse(engine.tryReserve(1L, DAY.minusDays(1), DAY.plusDays(4)), "around");
+        // Check-out day is free for the next check-in, and vice versa
+        assertTrue(engine.tryReserve(1L, DAY.plusDays(3), DAY.plusDays(4)));
+        assertTrue(engine.tryReserve(1L, DAY.minusDays(2), DAY));
+    }
+
+    @Test
+    void availabilityIsPerProperty() {
+        assertTrue(engine.tryReserve(1L, DAY, DAY.plusDays(3)));
+        // 65 lands on the same lock stripe as 1 but has its own calendar
+        assertTrue(engine.tryReserve(65L, DAY, DAY.plusDays(3)));
+        assertFalse(engine.isAvailable(1L, DAY, DAY.plusDays(1)));
+        assertTrue(engine.isAvailable(2L, DAY, DAY.plusDays(1)));
+        assertEquals(List.of(2L, 3L), engine.availableAmong(List.of(1L, 2L, 65L, 3L), DAY.plusDays(1), DAY.plusDays(2)));
+    }
+
+    @Test
+    void releaseFreesTheNightsAndDropsAnEmptyCalendar() {
+        assertTrue(engine.tryReserve(1L, DAY, DAY.plusDays(2)));
+        assertTrue(engine.tryReserve(1L, DAY.plusDays(5), DAY.plusDays(6)));
+
+        engine.release(1L, DAY, DAY.plusDays(2));
+        assertTrue(engine.isAvailable(1L, DAY, DAY.plusDays(2)));
+        assertEquals(1, calendars().size());
+
+        engine.release(1L, DAY.plusDays(5), DAY.plusDays(6));
+        assertTrue(calendars().isEmpty());
+        // Releasing something never claimed is harmless
+        engine.release(2L, DAY, DAY.plusDays(1));
+        assertTrue(calendars().isEmpty());
+    }
+
+    @Test
+    void endedStaysAreDroppedOnTheNextClaim() {
+        LocalDate today = LocalDate.now();
+        // Checked out today: ended, though still in the calendar until a claim prunes it
+        assertTrue(engine.tryReserve(1L, today.minusDays(3), today));
+        assertFalse(engine.isAvailable(1L, today.minusDays(3), today));
+
+        assertTrue(engine.tryReserve(1L, DAY, DAY.plusDays(1)));
+        assertTrue(engine.isAvailable(1L, today.minusDays(3), today));
+        assertFalse(engine.isAvailable(1L, DAY, DAY.plusDays(1)));
+    }
+
+    @Test
+    void exactlyOneOfManyRacingClaimsWins() throws Exception {
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 50; round++) {
+                LocalDate from = DAY.plusDays(round * 10L);
+                CountDownLatch start = new CountDownLatch(1);
+                AtomicInteger wins = new AtomicInteger();
+                List<Future<?>> futures = new java.util.ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int offset = t % 3;
+                    futures.add(pool.submit(() -> {
+                        start.await();
+                        // Every claim covers from + 2, so they all overlap
+                        if (engine.tryReserve(7L, from.plusDays(offset), from.plusDays(offset + 3))) wins.incrementAndGet();
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> f : futures) f.get(10, TimeUnit.SECONDS);
+                assertEquals(1, wins.get(), "round " + round);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, ?> calendars() {
+        return (Map<Long, ?>) ReflectionTestUtils.getField(engine, "calendars");
+    }
+}
@@ -0,0 +1,112 @@
+package com.rentalhaven.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rentalhaven.model.Property;
+import com.rentalhaven.model.User;
+import com.rentalhaven.repository.PropertyFilter;
+import com.rentalhaven.repository.PropertyIndex;
+import com.rentalhaven.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogueServiceTest {
+    private final CatalogueService service = new CatalogueService(2);
+    private final PropertyIndex index = new PropertyIndex();
+    private long nextId = 100;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.getReference(eq(User.class), any())).thenAnswer(call -> {
+            User owner = new User();
+            owner.setId(call.getArgument(1));
+            return owner;
+        });
+        // Stands in for the database: every entity is saved and given the next id
+        BatchInserter inserter = mock(BatchInserter.class);
+        when(inserter.insert(anyList(), any())).thenAnswer(call -> {
+            List<Object> items = call.getArgument(0);
+            BiFunction<EntityManager, Object, Object> toEntity = call.getArgument(1);
+            List<Object> saved = new ArrayList<>();
+            for (Object item : items) {
+                Property p = (Property) toEntity.apply(entityManager, item);
+                p.setId(nextId++);
+                saved.add(p);
+            }
+            return saved;
+        });
+        UserRepository users = mock(UserRepository.class);
+        when(users.existsById(anyLong())).thenReturn(true);
+
+        ReflectionTestUtils.setField(service, "batchInserter", inserter);
+        ReflectionTestUtils.setField(service, "userRepository", users);
+        ReflectionTestUtils.setField(service, "propertyIndex", index);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+    }
+
+    @Test
+    void overLongNdjsonLineIsRejectedAndTheRestImported() throws Exception {
+        String padding = "x".repeat(20_000);
+        String ndjson = row("Sea view flat") + "\r\n"
+            + "{\"title\":\"" + padding + "\"}\n"
+            + "\n"
+            + "not json\n"
+            + row("Hill cottage") + "\n"
+            + row("Lake house");
+
+        CatalogueService.ImportResult result = service.importProperties(
+            new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), CatalogueService.Format.NDJSON, 1L);
+
+        assertEquals(3, result.imported());
+        assertEquals(2, result.rejected());
+        assertEquals(List.of("row 2: line longer than 16384 characters", "row 3: unreadable row"), result.errors());
+    }
+
+    @Test
+    void savedRowsAreIndexedBatchByBatch() throws Exception {
+        String ndjson = row("One") + "\n" + row("Two") + "\n" + row("Three") + "\n";
+
+        service.importProperties(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)),
+            CatalogueService.Format.NDJSON, 1L);
+
+        for (long id = 100; id < 103; id++) assertNotNull(index.stampOf(id), "property " + id);
+        assertEquals(3, index.footprint().get("properties"));
+        assertEquals(3, index.searchText("sample", new PropertyFilter(null, null, null, null, null, null, null), null, 10).getTotal());
+    }
+
+    @Test
+    void csvValueOfTheWrongTypeRejectsOnlyItsRow() throws Exception {
+        String csv = "title,description,pricePerNight,city,state,type\n"
+            + "One,A sample stay,2500,Pune,Maharashtra,villa\n"
+            + "Two,A sample stay,cheap,Pune,Maharashtra,villa\n"
+            + "Three,A sample stay,3000,Pune,Maharashtra,villa\n";
+
+        CatalogueService.ImportResult result = service.importProperties(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), CatalogueService.Format.CSV, 1L);
+
+        assertEquals(2, result.imported());
+        assertEquals(List.of("row 2: unreadable row"), result.errors());
+    }
+
+    private static String row(String title) {
+        return "{\"title\":\"" + title + "\",\"description\":\"A sample stay\",\"pricePerNight\":2500,"
+            + "\"city\":\"Pune\",\"state\":\"Maharashtra\",\"type\":\"villa\"}";
+    }
+}